@@ -0,0 +1,97 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+// JMH harnesses for the inference engine, the parser and the tokenizer. Run with:
+//
+//   ./gradlew :bench:jmh                               steady-state throughput (default)
+//   ./gradlew :bench:jmh -Pbench.mode=coldstart        single-shot, one invocation per fresh JVM
+//   ./gradlew :bench:jmh -Pbench.mode=alloc            throughput plus the gc profiler (-prof gc)
+//   ./gradlew :bench:jmh -Pbench.include=Infer         only benchmarks matching the regex
+//
+// Every run writes build/results/jmh/<mode>.json; :bench:benchBaseline stores it as the baseline of
+// that mode and :bench:benchCompare fails when a benchmark regressed beyond -Pbench.threshold percent.
+
+plugins {
+    java
+    id("me.champeau.jmh") version "0.7.3"
+}
+
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
+}
+
+repositories {
+    mavenCentral()
+    mavenLocal()
+}
+
+dependencies {
+    implementation(project(":"))
+    implementation(libs.mvg.json)
+}
+
+val benchMode: String = (findProperty("bench.mode") as String?) ?: "throughput"
+val benchInclude: String? = findProperty("bench.include") as String?
+val benchThreshold: String = (findProperty("bench.threshold") as String?) ?: "10"
+val benchResults = layout.buildDirectory.file("results/jmh/$benchMode.json")
+val benchBaselineFile = layout.projectDirectory.file("baselines/$benchMode.json")
+
+jmh {
+    jmhVersion.set("1.37")
+    resultFormat.set("JSON")
+    resultsFile.set(benchResults)
+    if (benchInclude != null) {
+        includes.set(listOf(benchInclude))
+    }
+    when (benchMode) {
+        "throughput" -> {
+            benchmarkMode.set(listOf("thrpt"))
+            fork.set(1)
+            warmupIterations.set(3)
+            iterations.set(5)
+        }
+        "coldstart"  -> {
+            // every fork is a fresh JVM that measures exactly one invocation: startup + first inference
+            benchmarkMode.set(listOf("ss"))
+            fork.set(10)
+            warmupIterations.set(0)
+            iterations.set(1)
+        }
+        "alloc"      -> {
+            benchmarkMode.set(listOf("thrpt"))
+            fork.set(1)
+            warmupIterations.set(3)
+            iterations.set(5)
+            profilers.set(listOf("gc"))
+        }
+        else         -> throw GradleException("unknown bench.mode '$benchMode' (throughput, coldstart, alloc)")
+    }
+}
+
+tasks.register<Copy>("benchBaseline") {
+    description = "stores the last :bench:jmh results of the current bench.mode as its baseline"
+    from(benchResults)
+    into(layout.projectDirectory.dir("baselines"))
+}
+
+tasks.register<JavaExec>("benchCompare") {
+    description = "compares the last :bench:jmh results of the current bench.mode against its baseline"
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("org.modelingvalue.nelumbo.bench.BaselineComparator")
+    args(benchBaselineFile.asFile.path, benchResults.get().asFile.path, benchThreshold)
+}
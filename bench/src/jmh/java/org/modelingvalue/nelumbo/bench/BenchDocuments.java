@@ -0,0 +1,121 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.modelingvalue.nelumbo.Evaluatable;
+import org.modelingvalue.nelumbo.KnowledgeBase;
+import org.modelingvalue.nelumbo.NelumboConstants;
+import org.modelingvalue.nelumbo.Node;
+import org.modelingvalue.nelumbo.logic.Predicate;
+import org.modelingvalue.nelumbo.logic.Query;
+import org.modelingvalue.nelumbo.syntax.ParseException;
+import org.modelingvalue.nelumbo.syntax.Parser;
+import org.modelingvalue.nelumbo.syntax.ParserResult;
+import org.modelingvalue.nelumbo.syntax.Tokenizer;
+
+/**
+ * The documents the benchmarks run on: bundled library resources, loaded into a knowledge base without inferring
+ * their queries, and generated documents of a requested size.
+ */
+final class BenchDocuments {
+
+    private BenchDocuments() {
+    }
+
+    /** A loaded resource: the knowledge base with its types, rules and facts, and its not yet inferred queries. */
+    record Model(KnowledgeBase knowledgeBase, List<Predicate> queries) {
+    }
+
+    /** The source of a resource relative to the nelumbo library, e.g. {@code examples/fibonacci.nl}. */
+    static String resource(String resource) {
+        String path = NelumboConstants.NELUMBO_LIBRARY + resource;
+        try (InputStream in = BenchDocuments.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Nelumbo resource " + path + " does not exist");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parses a resource and evaluates everything except its queries, so the returned knowledge base has no memoized
+     * query results and every inference of the returned queries starts cold.
+     */
+    static Model load(String resource) {
+        String source = resource(resource);
+        List<Predicate> queries = new ArrayList<>();
+        KnowledgeBase knowledgeBase = KnowledgeBase.BASE.run(() -> {
+            KnowledgeBase kb = KnowledgeBase.CURRENT.get();
+            ParserResult parsed = new Parser(new Tokenizer(source, resource).tokenize()).parseNonThrowing();
+            try {
+                parsed.throwException();
+                for (Node root : parsed.roots()) {
+                    if (root instanceof Query query) {
+                        queries.add(query.predicate());
+                    } else if (root instanceof Evaluatable eval) {
+                        eval.evaluate(kb, parsed);
+                    }
+                }
+            } catch (ParseException e) {
+                throw new IllegalStateException(resource + ": " + e.getMessage(), e);
+            }
+        });
+        return new Model(knowledgeBase, List.copyOf(queries));
+    }
+
+    /** A family-style model with {@code nrOfFacts} parent-child facts over {@code nrOfFacts / 4} persons. */
+    static String facts(int nrOfFacts) {
+        int nrOfPersons = Math.max(2, nrOfFacts / 4);
+        StringBuilder sb = new StringBuilder();
+        sb.append("import nelumbo.logic\n\n");
+        sb.append("Person :: Object\n\n");
+        sb.append("FactType ::= pc(<Person>,<Person>)\n\n");
+        sb.append("Person ::= P0");
+        for (int p = 1; p < nrOfPersons; p++) {
+            sb.append(p % 16 == 0 ? ",\n          P" : ", P").append(p);
+        }
+        sb.append("\n\nfact ");
+        for (int f = 0; f < nrOfFacts; f++) {
+            int parent = f % nrOfPersons;
+            int child = (parent + 1 + f / nrOfPersons) % nrOfPersons;
+            sb.append(f == 0 ? "" : ",\n     ").append("pc(P").append(parent).append(", P").append(child).append(')');
+        }
+        sb.append('\n');
+        return sb.toString();
+    }
+
+    /** Bundled sources repeated until the text is at least {@code nrOfBytes} long. */
+    static String text(int nrOfBytes) {
+        String family = resource("examples/family.nl");
+        String fibonacci = resource("examples/fibonacci.nl");
+        StringBuilder sb = new StringBuilder(nrOfBytes + family.length() + fibonacci.length());
+        while (sb.length() < nrOfBytes) {
+            sb.append(family).append('\n').append(fibonacci).append('\n');
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,62 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.modelingvalue.nelumbo.KnowledgeBase;
+import org.modelingvalue.nelumbo.logic.Predicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Infers all queries of a bundled resource through {@link Predicate#infer()}. Every invocation runs in a fresh child of
+ * the loaded model, so memoization never carries over from one invocation to the next.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class InferBenchmark {
+
+    @Param({ "examples/fibonacci.nl", "examples/family.nl", "examples/maxFib.nl", "tests/collectionsTest.nl" })
+    public String resource;
+
+    private KnowledgeBase   model;
+    private List<Predicate> queries;
+
+    @Setup
+    public void setup() {
+        BenchDocuments.Model loaded = BenchDocuments.load(resource);
+        model = loaded.knowledgeBase();
+        queries = loaded.queries();
+    }
+
+    @Benchmark
+    public KnowledgeBase infer(Blackhole blackhole) {
+        return model.run(() -> {
+            for (Predicate query : queries) {
+                blackhole.consume(query.infer());
+            }
+        });
+    }
+
+}
@@ -0,0 +1,152 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.modelingvalue.json.Json;
+
+/**
+ * Compares a JMH JSON result file against a stored baseline of the same benchmarks and flags regressions. A benchmark
+ * regressed when its score got worse by more than the threshold percentage and by more than the combined score errors
+ * of both runs. For throughput higher is better; for time modes and the gc profiler's normalized allocation rate lower
+ * is better.
+ * <p>
+ * Usage: {@code BaselineComparator <baseline.json> <results.json> [threshold-percent]}. Exits with 1 when anything
+ * regressed and with 2 when a file is missing.
+ */
+public final class BaselineComparator {
+
+    /** The gc profiler metric that is compared next to the primary score. */
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+
+    private BaselineComparator() {
+    }
+
+    /** One comparable number of one benchmark run. */
+    record Score(double score, double error, String unit, boolean higherIsBetter) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BaselineComparator <baseline.json> <results.json> [threshold-percent]");
+            System.exit(2);
+            return;
+        }
+        Path baselineFile = Path.of(args[0]);
+        Path resultsFile = Path.of(args[1]);
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        if (!Files.isRegularFile(baselineFile)) {
+            System.err.println("no baseline " + baselineFile + " (store one with :bench:benchBaseline)");
+            System.exit(2);
+            return;
+        }
+        if (!Files.isRegularFile(resultsFile)) {
+            System.err.println("no results " + resultsFile + " (run :bench:jmh first)");
+            System.exit(2);
+            return;
+        }
+        Map<String, Score> baseline = scores(Files.readString(baselineFile, StandardCharsets.UTF_8));
+        Map<String, Score> results = scores(Files.readString(resultsFile, StandardCharsets.UTF_8));
+        int regressions = compare(baseline, results, threshold);
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+    /** Prints one line per benchmark and returns the number of regressions. */
+    static int compare(Map<String, Score> baseline, Map<String, Score> results, double threshold) {
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : results.entrySet()) {
+            Score now = entry.getValue();
+            Score was = baseline.get(entry.getKey());
+            if (was == null) {
+                System.out.printf("  new         %s = %.3f %s%n", entry.getKey(), now.score(), now.unit());
+                continue;
+            }
+            double change = was.score() == 0 ? 0 : (now.score() - was.score()) / was.score() * 100.0;
+            double worse = now.higherIsBetter() ? -change : change;
+            boolean significant = Math.abs(now.score() - was.score()) > was.error() + now.error();
+            String verdict = worse > threshold && significant ? "REGRESSION" : //
+                    worse < -threshold && significant ? "improved" : "ok";
+            if ("REGRESSION".equals(verdict)) {
+                regressions++;
+            }
+            System.out.printf("  %-11s %s = %.3f -> %.3f %s (%+.1f%%)%n", verdict, entry.getKey(), was.score(),
+                    now.score(), now.unit(), change);
+        }
+        for (String key : baseline.keySet()) {
+            if (!results.containsKey(key)) {
+                System.out.printf("  missing     %s%n", key);
+            }
+        }
+        System.out.printf("%d regression(s) beyond %.1f%%%n", regressions, threshold);
+        return regressions;
+    }
+
+    /** The scores of a JMH JSON result file, keyed by benchmark, parameters, mode and metric. */
+    static Map<String, Score> scores(String json) {
+        Map<String, Score> scores = new TreeMap<>();
+        if (!(Json.fromJson(json) instanceof List<?> runs)) {
+            return scores;
+        }
+        for (Object run : runs) {
+            if (!(run instanceof Map<?, ?> r)) {
+                continue;
+            }
+            String mode = String.valueOf(r.get("mode"));
+            String key = r.get("benchmark") + params(r.get("params")) + " [" + mode + "]";
+            if (r.get("primaryMetric") instanceof Map<?, ?> primary) {
+                scores.put(key, score(primary, "thrpt".equals(mode)));
+            }
+            if (r.get("secondaryMetrics") instanceof Map<?, ?> secondary
+                    && secondary.get(ALLOC_METRIC) instanceof Map<?, ?> alloc) {
+                scores.put(key + " " + ALLOC_METRIC, score(alloc, false));
+            }
+        }
+        return scores;
+    }
+
+    private static String params(Object params) {
+        if (!(params instanceof Map<?, ?> map) || map.isEmpty()) {
+            return "";
+        }
+        Map<String, String> sorted = new TreeMap<>();
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            sorted.put(String.valueOf(entry.getKey()), String.valueOf(entry.getValue()));
+        }
+        return sorted.toString();
+    }
+
+    private static Score score(Map<?, ?> metric, boolean higherIsBetter) {
+        return new Score(number(metric.get("score")), number(metric.get("scoreError")),
+                String.valueOf(metric.get("scoreUnit")), higherIsBetter);
+    }
+
+    /** JMH writes "NaN" (a string) for an error it could not compute; that counts as no error margin. */
+    private static double number(Object value) {
+        if (value instanceof Number number && !Double.isNaN(number.doubleValue())) {
+            return number.doubleValue();
+        }
+        return 0.0;
+    }
+
+}
@@ -113,6 +113,7 @@ tasks.named<Delete>("clean") {
     delete(file("docs/site"))
     delete(rootProject.layout.buildDirectory)
     delete(file("cli/build"))
+    delete(file("bench/build"))
     delete(file("website/build"))
     delete(file("lsp/server/build"))
     delete(file("lsp/plugins/eclipse/build"))
@@ -50,6 +50,8 @@ import javax.swing.tree.DefaultTreeModel;
 import org.modelingvalue.json.Json;
 import org.modelingvalue.json.JsonPrettyfier;
 import org.modelingvalue.nelumbo.KnowledgeBase;
+import org.modelingvalue.nelumbo.Profiler;
+import org.modelingvalue.nelumbo.server.FactFiles;
 import org.modelingvalue.nelumbo.server.KnowledgeBaseLoader;
 import org.modelingvalue.nelumbo.server.NamedSource;
 import org.modelingvalue.nelumbo.server.NelumboServer;
@@ -98,11 +100,13 @@ public final class NelumboCli {
         }
         boolean quiet = false;
         boolean trace = false;
+        Profiler profiler = null;
         JsonOutput json = null;
         Integer serverPort = null;
         long timeoutMs = NelumboServer.DEFAULT_TIMEOUT_MS;
         java.util.List<String> prep = new ArrayList<>();
         java.util.List<Input> inputs = new ArrayList<>();
+        java.util.List<String[]> facts = new ArrayList<>();
         for (int i = 0; i < args.length; i++) {
             String a = args[i];
             switch (a) {
@@ -171,6 +175,18 @@ public final class NelumboCli {
             case "--trace":
                 trace = true;
                 break;
+            case "--profile":
+                profiler = new Profiler();
+                break;
+            case "--facts":
+                if (i + 1 >= args.length || args[i + 1].indexOf('=') <= 0) {
+                    System.err.println("nelumbo: expected NAME=FILE after " + a);
+                    printUsage(System.err);
+                    System.exit(2);
+                    return;
+                }
+                facts.add(args[++i].split("=", 2));
+                break;
             case "-h":
             case "--help":
                 printUsage(System.out);
@@ -191,7 +207,7 @@ public final class NelumboCli {
         }
         String preamble = prepPreamble(prep);
         if (serverPort != null) {
-            runServer(serverPort, timeoutMs, inputs, preamble);
+            runServer(serverPort, timeoutMs, inputs, preamble, facts);
             return; // no exit: the server's dispatcher thread keeps the JVM alive
         }
         if (inputs.isEmpty()) {
@@ -199,10 +215,15 @@ public final class NelumboCli {
             System.exit(2);
             return;
         }
+        if (!facts.isEmpty()) {
+            System.err.println("nelumbo: --facts needs a knowledge base to load into (--server)");
+            System.exit(2);
+            return;
+        }
         int failed = 0;
         for (Input input : inputs) {
-            boolean ok = input.file() != null ? runFile(input.file(), quiet, json, preamble)
-                    : runSource(input.inlineSource(), "<nelumbo>", quiet, json, preamble);
+            boolean ok = input.file() != null ? runFile(input.file(), quiet, json, preamble, profiler)
+                    : runSource(input.inlineSource(), "<nelumbo>", quiet, json, preamble, profiler);
             if (!ok) {
                 failed++;
             }
@@ -215,15 +236,26 @@ public final class NelumboCli {
             if (trace) {
                 addTraceStub(out);
             }
+            if (profiler != null) {
+                // printing the rules resolves their types, which needs a knowledge base
+                out.put("profile", KnowledgeBase.CURRENT.get(new KnowledgeBase(KnowledgeBase.BASE), profiler::report));
+            }
             System.out.println(Json.toJson(out));
-        } else if (trace) {
-            System.out.println("trace: not-implemented");
+        } else {
+            if (trace) {
+                System.out.println("trace: not-implemented");
+            }
+            if (profiler != null) {
+                System.out.println("profile:");
+                System.out.print(KnowledgeBase.CURRENT.get(new KnowledgeBase(KnowledgeBase.BASE), profiler::toString));
+            }
         }
         System.exit(failed == 0 ? 0 : 1);
     }
 
     /** Loads the inputs into a base knowledge base and serves it over HTTP (the old nelumbo-cli-server). */
-    private static void runServer(int port, long timeoutMs, java.util.List<Input> inputs, String preamble) {
+    private static void runServer(int port, long timeoutMs, java.util.List<Input> inputs, String preamble,
+            java.util.List<String[]> facts) {
         java.util.List<NamedSource> sources = new ArrayList<>();
         java.util.List<String>      files   = new ArrayList<>();
         int inlineCount = 0;
@@ -244,6 +276,10 @@ public final class NelumboCli {
             }
         }
         KnowledgeBase base   = KnowledgeBaseLoader.load(sources);
+        if (!loadFacts(base, facts)) {
+            System.exit(2);
+            return;
+        }
         NelumboServer server = new NelumboServer(base, files, timeoutMs);
         int bound = server.start(port);
         System.out.println("Nelumbo server listening on http://localhost:" + bound
@@ -251,6 +287,20 @@ public final class NelumboCli {
                 + ", timeout " + timeoutMs + " ms)");
     }
 
+    /** Streams each NAME=FILE of --facts into the base; reports the first failure on stderr. */
+    private static boolean loadFacts(KnowledgeBase base, java.util.List<String[]> facts) {
+        for (String[] entry : facts) {
+            try {
+                int added = FactFiles.load(base, entry[0], Path.of(entry[1]));
+                System.err.println("nelumbo: " + added + " " + entry[0] + " fact(s) loaded from " + entry[1]);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("nelumbo: " + entry[1] + ": " + e.getMessage());
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static java.util.List<Path> expand(Path path) {
         if (Files.isDirectory(path)) {
             try (java.util.stream.Stream<Path> walk = Files.walk(path)) {
@@ -271,7 +321,7 @@ public final class NelumboCli {
         }
     }
 
-    private static boolean runFile(String file, boolean quiet, JsonOutput json, String preamble) {
+    private static boolean runFile(String file, boolean quiet, JsonOutput json, String preamble, Profiler profiler) {
         String source;
         String name;
         try {
@@ -289,7 +339,7 @@ public final class NelumboCli {
             report(json, file + ": " + e.getMessage());
             return false;
         }
-        return runSource(source, name, quiet, json, preamble);
+        return runSource(source, name, quiet, json, preamble, profiler);
     }
 
     private static void report(JsonOutput json, String message) {
@@ -300,8 +350,9 @@ public final class NelumboCli {
         }
     }
 
-    private static boolean runSource(String source, String name, boolean quiet, JsonOutput json, String preamble) {
-        NelumboEvaluator.EvalResult result = NelumboEvaluator.evaluate(source, name, 0, preamble);
+    private static boolean runSource(String source, String name, boolean quiet, JsonOutput json, String preamble,
+                                     Profiler profiler) {
+        NelumboEvaluator.EvalResult result = NelumboEvaluator.evaluate(source, name, 0, preamble, profiler);
         for (NelumboEvaluator.Diagnostic d : result.diagnostics()) {
             report(json, name + ":" + d.line() + ":" + d.col() + ": " + d.message());
         }
@@ -494,7 +545,8 @@ public final class NelumboCli {
             javax.swing.Timer poll = new javax.swing.Timer(1000, e -> {
                 if (running[0] != null) {
                     NelumboServer server = running[0];
-                    statRequests.setText(server.requestCount() + " (" + server.errorCount() + " errors)");
+                    statRequests.setText(server.requestCount() + " (" + server.errorCount() + " errors, "
+                            + server.cacheHits() + " cache hits, " + server.cacheMisses() + " misses)");
                     statTiming.setText(String.format("avg %.1f ms, last %.1f ms", server.averageHandleMillis(), server.lastHandleMillis()));
                     long up = server.uptimeMillis() / 1000;
                     statUptime.setText(String.format("%d:%02d:%02d", up / 3600, up / 60 % 60, up % 60));
@@ -718,6 +770,11 @@ public final class NelumboCli {
                                    per query the facts/falsehoods as name/value pairs,
                                    and the parse tree of the input
                   --trace          add the (currently stubbed) trace field to the output
+                  --profile        time every rule and count memo hits/misses per functor;
+                                   printed as a table after the run (a profile array with -j)
+                  --facts N=F      stream the facts in CSV file F (JSON arrays per line when F ends
+                                   in .jsonl) into the relation of FactType functor N of the
+                                   --server knowledge base; repeatable
                   -s, --server P   serve the inputs over HTTP on port P (0 picks a free port)
                   -t, --timeout MS per-request inference budget in server mode
                                    (default 30000; 0 disables)
@@ -729,8 +786,11 @@ public final class NelumboCli {
                   POST /eval        evaluate a posted Nelumbo document, returns query results
                                     and parse tree as JSON (raw text, or a JSON envelope
                                     {"document": "...", "limit": N, "stdlib": bool} where
-                                    stdlib=true preloads all stdlib imports)
+                                    stdlib=true preloads all stdlib imports; "profile": true
+                                    or ?profile=true adds a per-rule profile array)
                   POST /eval/trace  like /eval, with a (currently stubbed) trace field
+                  POST /facts?functor=N  stream posted CSV (JSON-lines with a JSON
+                                    content type) facts into the relation of functor N
                   GET  /metadata    knowledge base metadata (types, functors, rules, facts)
                   GET  /examples    bundled example names; /examples/<name> returns the source
                   GET  /health      liveness check
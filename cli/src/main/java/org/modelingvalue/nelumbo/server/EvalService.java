@@ -16,32 +16,44 @@
 
 package org.modelingvalue.nelumbo.server;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HexFormat;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 import org.modelingvalue.collections.Entry;
 import org.modelingvalue.json.Json;
+import org.modelingvalue.nelumbo.Budget;
 import org.modelingvalue.nelumbo.KnowledgeBase;
+import org.modelingvalue.nelumbo.NelumboBudgetException;
 import org.modelingvalue.nelumbo.NelumboTimeoutException;
 import org.modelingvalue.nelumbo.Node;
+import org.modelingvalue.nelumbo.Profiler;
 import org.modelingvalue.nelumbo.lang.Functor;
 import org.modelingvalue.nelumbo.lang.Type;
 import org.modelingvalue.nelumbo.lang.Variable;
 import org.modelingvalue.nelumbo.logic.InferResult;
-import org.modelingvalue.nelumbo.logic.Predicate;
 import org.modelingvalue.nelumbo.logic.Query;
 import org.modelingvalue.nelumbo.syntax.ParseException;
 import org.modelingvalue.nelumbo.syntax.Parser;
@@ -59,9 +71,11 @@ import org.modelingvalue.nelumbo.tools.NelumboEvaluator;
 public final class EvalService implements AutoCloseable {
 
     /** Default per-request inference budget, in milliseconds. */
-    public static final  long DEFAULT_TIMEOUT_MS = 30_000;
+    public static final  long DEFAULT_TIMEOUT_MS  = 30_000;
     /** Extra wall-clock the HTTP backstop waits beyond the engine deadline before giving up. */
-    private static final long GRACE_MS           = 2_000;
+    private static final long GRACE_MS            = 2_000;
+    /** The number of responses kept in the response cache; 0 disables it. */
+    public static final  int  RESPONSE_CACHE_SIZE = Integer.getInteger("RESPONSE_CACHE_SIZE", 256);
 
     /** An HTTP-ready outcome: the status code and the JSON-serializable body. */
     public record Response(int status, Map<String, Object> body) {
@@ -71,6 +85,21 @@ public final class EvalService implements AutoCloseable {
     private final List<String>    loadedFiles;
     private final long            timeoutMs;
     private final ExecutorService evalExecutor;
+    // Responses by request: a bounded LRU of completed evaluations, and the evaluations in flight, which identical
+    // concurrent requests wait for instead of evaluating the document again. Loading facts bumps the base version.
+    private final Map<CacheKey, Response>                                  responseCache = new LinkedHashMap<>(16,
+            0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, Response> eldest) {
+            return size() > RESPONSE_CACHE_SIZE;
+        }
+    };
+    private final ConcurrentHashMap<CacheKey, CompletableFuture<Response>> inFlight      = new ConcurrentHashMap<>();
+    private final AtomicLong                                               baseVersion   = new AtomicLong();
+    private final LongAdder                                                cacheHits     = new LongAdder();
+    private final LongAdder                                                cacheMisses   = new LongAdder();
 
     /** {@code timeoutMs} is the per-request inference budget; 0 (or less) disables the timeout. */
     public EvalService(KnowledgeBase baseKb, List<String> loadedFiles, long timeoutMs) {
@@ -89,6 +118,16 @@ public final class EvalService implements AutoCloseable {
         evalExecutor.shutdownNow();
     }
 
+    /** The number of eval requests answered from the response cache or by an identical request in flight. */
+    public long cacheHits() {
+        return cacheHits.sum();
+    }
+
+    /** The number of eval requests that were evaluated (profiled requests bypass the cache and are not counted). */
+    public long cacheMisses() {
+        return cacheMisses.sum();
+    }
+
     /** The response for a liveness check. */
     public static Map<String, Object> health() {
         return Map.of("status", "ok");
@@ -96,12 +135,24 @@ public final class EvalService implements AutoCloseable {
 
     /**
      * Handles one eval request body. The request is either a raw {@code .nl} document (any non-JSON content type) or a
-     * JSON envelope {@code {"document": "...", "trace": bool, "limit": int}} when the content type is JSON.
+     * JSON envelope {@code {"document": "...", "trace": bool, "limit": int}} when the content type is JSON. The envelope
+     * may also carry an inference budget: {@code "maxRuleApplications"}, {@code "maxDerivedFacts"} and
+     * {@code "maxBytes"}.
      */
     public Response eval(String body, String contentType, boolean pathTrace) {
+        return eval(body, contentType, pathTrace, false);
+    }
+
+    /**
+     * Like {@link #eval(String, String, boolean)}; with {@code queryProfile} (or {@code "profile": true} in the
+     * envelope) the response carries a {@code "profile"} array with per-rule timings and per-functor memo counts.
+     * Responses are cached by document, request options and the facts loaded into the base, except profiled ones (their
+     * timings are per run) and timeouts.
+     */
+    public Response eval(String body, String contentType, boolean pathTrace, boolean queryProfile) {
         EvalRequest request;
         try {
-            request = parseRequest(body, contentType, pathTrace);
+            request = parseRequest(body, contentType, pathTrace, queryProfile);
         } catch (IllegalArgumentException e) {
             return new Response(400, Map.of("error", "bad-request", "message", "malformed JSON request body"));
         }
@@ -116,18 +167,115 @@ public final class EvalService implements AutoCloseable {
             }
             return new Response(400, response);
         }
+        if (request.profile() || RESPONSE_CACHE_SIZE <= 0) {
+            return respond(request);
+        }
+        return cached(request);
+    }
+
+    private Response cached(EvalRequest request) {
+        CacheKey key = new CacheKey(sha256(request.document()), request.trace(), request.limit(), request.stdlib(),
+                request.budget(), baseVersion.get());
+        Response response;
+        synchronized (responseCache) {
+            response = responseCache.get(key);
+        }
+        if (response != null) {
+            cacheHits.increment();
+            return response;
+        }
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        CompletableFuture<Response> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            cacheHits.increment();
+            return await(running, request.trace());
+        }
+        cacheMisses.increment();
+        try {
+            // shared by the cache and the waiting requests, so nobody can change it underneath the others
+            response = immutable(respond(request));
+            if (response.status() != 408 && key.baseVersion() == baseVersion.get()) {
+                synchronized (responseCache) {
+                    responseCache.put(key, response);
+                }
+            }
+            future.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /** Waits for an identical request in flight, no longer than a request of its own would take. */
+    private Response await(CompletableFuture<Response> running, boolean trace) {
+        try {
+            return timeoutMs <= 0 ? running.get() : running.get(timeoutMs + GRACE_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return timeout(trace);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return timeout(trace);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Response immutable(Response response) {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) immutable((Object) response.body());
+        return new Response(response.status(), body);
+    }
+
+    private static Object immutable(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            map.forEach((k, v) -> copy.put(k, immutable(v)));
+            return Collections.unmodifiableMap(copy);
+        } else if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            list.forEach(v -> copy.add(immutable(v)));
+            return Collections.unmodifiableList(copy);
+        } else {
+            return value;
+        }
+    }
+
+    private static String sha256(String document) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(document.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** A request as far as its response is concerned; the document is identified by its SHA-256. */
+    private record CacheKey(String documentHash, boolean trace, Integer limit, boolean stdlib, Budget budget,
+                            long baseVersion) {
+    }
+
+    private Response respond(EvalRequest request) {
+        boolean trace = request.trace();
+        Map<String, Object> response = new LinkedHashMap<>();
+        Profiler profiler = request.profile() ? new Profiler() : null;
         EvalResult result;
         try {
-            result = evaluate(request.document(), request.limit(), request.stdlib());
-        } catch (EvalTimeoutException e) {
-            Map<String, Object> timeout = new LinkedHashMap<>();
-            timeout.put("error", "timeout");
-            timeout.put("timeoutMs", timeoutMs);
-            timeout.put("message", "inference exceeded " + timeoutMs + " ms");
+            result = evaluate(request.document(), request.limit(), request.stdlib(), request.budget(), profiler);
+        } catch (NelumboBudgetException e) {
+            Map<String, Object> budget = new LinkedHashMap<>();
+            budget.put("error", "budget");
+            budget.put("resource", e.resource().name().toLowerCase());
+            budget.put("limit", e.limit());
+            budget.put("message", e.getMessage());
             if (trace) {
-                addTraceStub(timeout);
+                addTraceStub(budget);
             }
-            return new Response(408, timeout);
+            return new Response(422, budget);
+        } catch (EvalTimeoutException e) {
+            return timeout(trace);
         }
         response.put("queries", result.queries);
         response.put("errors", result.errors);
@@ -135,12 +283,60 @@ public final class EvalService implements AutoCloseable {
         if (trace) {
             addTraceStub(response);
         }
+        if (profiler != null) {
+            response.put("profile", result.profile);
+        }
         // A document that produced no queries but did report errors is treated as a client error.
         boolean ok = result.errors.isEmpty() || !result.queries.isEmpty();
         return new Response(ok ? 200 : 400, response);
     }
 
-    private EvalRequest parseRequest(String body, String contentType, boolean pathTrace) {
+    private Response timeout(boolean trace) {
+        Map<String, Object> timeout = new LinkedHashMap<>();
+        timeout.put("error", "timeout");
+        timeout.put("timeoutMs", timeoutMs);
+        timeout.put("message", "inference exceeded " + timeoutMs + " ms");
+        if (trace) {
+            addTraceStub(timeout);
+        }
+        return new Response(408, timeout);
+    }
+
+    /**
+     * Streams CSV (or, when the content type is JSON, JSON-lines) facts into the {@code functor} relation of the base
+     * knowledge base; requests evaluated from then on see them. See {@link FactFiles}.
+     */
+    public Response loadFacts(String functor, InputStream body, String contentType) {
+        if (functor == null || functor.isBlank()) {
+            return new Response(400, Map.of("error", "bad-request", "message", "missing functor"));
+        }
+        boolean jsonLines = contentType != null && contentType.toLowerCase().contains("json");
+        try {
+            int added;
+            // one load at a time, each with its own base version; requests in flight keep the facts they started
+            // with, and their responses are not cached under the new version
+            synchronized (baseVersion) {
+                try {
+                    added = FactFiles.load(baseKb, functor, body, jsonLines);
+                } finally {
+                    baseVersion.incrementAndGet();
+                    synchronized (responseCache) {
+                        responseCache.clear();
+                    }
+                }
+            }
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("functor", functor);
+            response.put("added", added);
+            return new Response(200, response);
+        } catch (IllegalArgumentException e) {
+            return new Response(400, Map.of("error", "bad-request", "message", String.valueOf(e.getMessage())));
+        } catch (IOException e) {
+            return new Response(400, Map.of("error", "bad-request", "message", "cannot read facts: " + e.getMessage()));
+        }
+    }
+
+    private EvalRequest parseRequest(String body, String contentType, boolean pathTrace, boolean queryProfile) {
         if (contentType != null && contentType.toLowerCase().contains("json") && body != null && !body.isBlank()) {
             // Json.fromJson throws IllegalArgumentException on malformed JSON; integral numbers come back as Long
             Map<?, ?> node = Json.fromJson(body) instanceof Map<?, ?> m ? m : Map.of();
@@ -149,12 +345,20 @@ public final class EvalService implements AutoCloseable {
             Integer limit = node.get("limit") instanceof Long l && 0 <= l && l <= Integer.MAX_VALUE ? l.intValue()
                     : null;
             boolean stdlib = Boolean.TRUE.equals(node.get("stdlib"));
-            return new EvalRequest(document, trace, limit, stdlib);
+            boolean profile = queryProfile || Boolean.TRUE.equals(node.get("profile"));
+            Budget budget = new Budget(positive(node.get("maxRuleApplications")), positive(node.get("maxDerivedFacts")),
+                    positive(node.get("maxBytes")));
+            return new EvalRequest(document, trace, limit, stdlib, budget, profile);
         }
-        return new EvalRequest(body, pathTrace, null, false);
+        return new EvalRequest(body, pathTrace, null, false, Budget.UNLIMITED, queryProfile);
+    }
+
+    private static long positive(Object value) {
+        return value instanceof Long l && l > 0 ? l : 0;
     }
 
-    private record EvalRequest(String document, boolean trace, Integer limit, boolean stdlib) {
+    private record EvalRequest(String document, boolean trace, Integer limit, boolean stdlib, Budget budget,
+                               boolean profile) {
     }
 
     /** Evaluated before the document when the envelope asks for {@code "stdlib": true}. */
@@ -178,17 +382,24 @@ public final class EvalService implements AutoCloseable {
     }
 
     private record EvalResult(List<Map<String, Object>> queries, List<Map<String, Object>> errors,
-                              List<Map<String, Object>> parseTree) {
+                              List<Map<String, Object>> parseTree, List<Map<String, Object>> profile) {
     }
 
-    private EvalResult evaluate(String document, Integer limit, boolean stdlib) {
+    private EvalResult evaluate(String document, Integer limit, boolean stdlib, Budget budget, Profiler profiler) {
         String src = document.endsWith("\n") ? document : document + "\n";
         List<Map<String, Object>> queries = new ArrayList<>();
         List<Map<String, Object>> errors = new ArrayList<>();
         List<Map<String, Object>> parseTree = new ArrayList<>();
+        List<Map<String, Object>> profile = new ArrayList<>();
         // A throwaway child of the loaded base: a request's own declarations never leak into the shared
         // base, concurrent requests stay isolated, and the deadline is carried into the inference.
         KnowledgeBase requestKb = new KnowledgeBase(baseKb);
+        requestKb.setBudget(budget);
+        requestKb.setProfiler(profiler);
+        if (limit != null) {
+            // queries stop enumerating after limit + 1 solutions, which is enough to report truncation
+            requestKb.setSolutionLimit(limit);
+        }
         Runnable work = () -> {
             if (stdlib) {
                 try {
@@ -213,13 +424,17 @@ public final class EvalService implements AutoCloseable {
                     queries.add(queryJson(query, limit));
                 }
             }
+            if (profiler != null) {
+                // in the request knowledge base, where the rules of the document can be printed
+                profile.addAll(profiler.report());
+            }
         };
         if (timeoutMs <= 0) {
             requestKb.run(work);
         } else {
             runWithTimeout(requestKb, work);
         }
-        return new EvalResult(queries, errors, parseTree);
+        return new EvalResult(queries, errors, parseTree, profile);
     }
 
     private void runWithTimeout(KnowledgeBase requestKb, Runnable work) {
@@ -346,11 +561,7 @@ public final class EvalService implements AutoCloseable {
     }
 
     private List<String> declaredFacts() {
-        List<Predicate> predicates = new ArrayList<>();
-        for (Entry<Predicate, InferResult> fact : baseKb.facts()) {
-            predicates.add(fact.getKey());
-        }
-        return declaredSources(predicates, EvalService::deparse);
+        return declaredSources(baseKb.facts(), EvalService::deparse);
     }
 
     private boolean fromLoadedFile(Node node) {
@@ -0,0 +1,107 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.modelingvalue.json.Json;
+import org.modelingvalue.nelumbo.KnowledgeBase;
+import org.modelingvalue.nelumbo.lang.Functor;
+
+/**
+ * Streams facts from CSV or JSON-lines data into {@link KnowledgeBase#loadFacts(Functor, Stream)}, without generating
+ * {@code .nl} source. Every non-blank line is one fact: comma separated values (double quotes for values with commas
+ * or quotes, a doubled quote inside) or a JSON array of values.
+ */
+public final class FactFiles {
+
+    private FactFiles() {
+    }
+
+    /** The format of a file, by its extension: {@code .jsonl}/{@code .ndjson} are JSON-lines, all others CSV. */
+    public static boolean isJsonLines(String name) {
+        String lower = name.toLowerCase();
+        return lower.endsWith(".jsonl") || lower.endsWith(".ndjson");
+    }
+
+    /** Loads the facts in the file into the {@code functor} relation; returns the number of new facts. */
+    public static int load(KnowledgeBase kb, String functor, Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return load(kb, functor, in, isJsonLines(file.toString()));
+        }
+    }
+
+    public static int load(KnowledgeBase kb, String functor, InputStream in, boolean jsonLines) throws IOException {
+        Functor f = kb.factFunctor(functor);
+        if (f == null) {
+            throw new IllegalArgumentException("unknown FactType functor: " + functor);
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        try {
+            return kb.loadFacts(f, reader.lines().filter(l -> !l.isBlank()).map(jsonLines ? FactFiles::json
+                    : FactFiles::csv));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    static Object[] json(String line) {
+        if (Json.fromJson(line) instanceof List<?> values) {
+            return values.toArray();
+        }
+        throw new IllegalArgumentException("not a JSON array: " + line);
+    }
+
+    static Object[] csv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append(c);
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (c != '\r') {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values.toArray();
+    }
+
+}
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.net.InetSocketAddress;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
@@ -28,13 +29,15 @@ import java.util.concurrent.Executors;
 
 import org.modelingvalue.json.Json;
 import org.modelingvalue.nelumbo.KnowledgeBase;
+import org.modelingvalue.nelumbo.MemoTable;
 
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpServer;
 
 /**
  * A lean HTTP executor for Nelumbo text specs, on the JDK's built-in {@link HttpServer} (no third-party server
- * dependencies). Endpoints: {@code POST /eval}, {@code POST /eval/trace}, {@code GET /metadata}, {@code GET /health}.
+ * dependencies). Endpoints: {@code POST /eval}, {@code POST /eval/trace}, {@code POST /facts}, {@code GET /metadata},
+ * {@code GET /health}.
  * All request handling is delegated to {@link EvalService}; this class only maps HTTP onto it.
  */
 public final class NelumboServer {
@@ -42,7 +45,8 @@ public final class NelumboServer {
     /** Default per-request inference budget, in milliseconds. */
     public static final long DEFAULT_TIMEOUT_MS = EvalService.DEFAULT_TIMEOUT_MS;
 
-    private final EvalService service;
+    private final KnowledgeBase baseKb;
+    private final EvalService   service;
     private final java.util.concurrent.atomic.AtomicLong requests         = new java.util.concurrent.atomic.AtomicLong();
     private final java.util.concurrent.atomic.AtomicLong errors           = new java.util.concurrent.atomic.AtomicLong();
     private final java.util.concurrent.atomic.AtomicLong handleNanosTotal = new java.util.concurrent.atomic.AtomicLong();
@@ -58,11 +62,17 @@ public final class NelumboServer {
 
     /** {@code timeoutMs} is the per-request inference budget; 0 (or less) disables the timeout. */
     public NelumboServer(KnowledgeBase baseKb, List<String> loadedFiles, long timeoutMs) {
+        this.baseKb  = baseKb;
         this.service = new EvalService(baseKb, loadedFiles, timeoutMs);
     }
 
-    /** Starts the server on {@code port} (use 0 for an ephemeral port) and returns the actually bound port. */
+    /**
+     * Starts the server on {@code port} (use 0 for an ephemeral port) and returns the actually bound port. From then on
+     * the memo table of the base, the model loaded by {@link KnowledgeBaseLoader}, is the shared tier of the request
+     * knowledge bases, with a budget of its own (see {@link KnowledgeBase#shareMemoization}).
+     */
     public int start(int port) {
+        baseKb.shareMemoization(MemoTable.MAX_SHARED_MEMOIZ_BYTES);
         try {
             server = HttpServer.create(new InetSocketAddress(port), 0);
         } catch (IOException e) {
@@ -98,6 +108,16 @@ public final class NelumboServer {
         return errors.get();
     }
 
+    /** The number of eval requests answered from the response cache (or by an identical request in flight). */
+    public long cacheHits() {
+        return service.cacheHits();
+    }
+
+    /** The number of eval requests that had to be evaluated. */
+    public long cacheMisses() {
+        return service.cacheMisses();
+    }
+
     /** Average request handling time in milliseconds (0 when nothing was handled yet). */
     public double averageHandleMillis() {
         long count = requests.get();
@@ -160,7 +180,16 @@ public final class NelumboServer {
                 if (requires(exchange, method, "POST")) {
                     String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
                     String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
-                    EvalService.Response response = service.eval(body, contentType, path.endsWith("/trace"));
+                    boolean profile = "true".equals(queryParam(exchange.getRequestURI().getRawQuery(), "profile"));
+                    EvalService.Response response = service.eval(body, contentType, path.endsWith("/trace"), profile);
+                    respond(exchange, response.status(), response.body());
+                }
+                break;
+            case "/facts":
+                if (requires(exchange, method, "POST")) {
+                    String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+                    String functor = queryParam(exchange.getRequestURI().getRawQuery(), "functor");
+                    EvalService.Response response = service.loadFacts(functor, exchange.getRequestBody(), contentType);
                     respond(exchange, response.status(), response.body());
                 }
                 break;
@@ -194,6 +223,18 @@ public final class NelumboServer {
         }
     }
 
+    private static String queryParam(String query, String name) {
+        if (query != null) {
+            for (String param : query.split("&")) {
+                int eq = param.indexOf('=');
+                if (eq > 0 && param.substring(0, eq).equals(name)) {
+                    return URLDecoder.decode(param.substring(eq + 1), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        return null;
+    }
+
     private boolean requires(HttpExchange exchange, String method, String expected) throws IOException {
         if (expected.equals(method)) {
             return true;
@@ -306,6 +347,7 @@ public final class NelumboServer {
             <table>
               <tr><td><code>POST /eval</code></td><td>evaluate a posted Nelumbo document, returns query results and parse tree as JSON</td></tr>
               <tr><td><code>POST /eval/trace</code></td><td>like /eval, with a (currently stubbed) trace field</td></tr>
+              <tr><td><code>POST /facts?functor=F</code></td><td>streams CSV (or JSON-lines, with a JSON content type) facts into the F relation</td></tr>
               <tr><td><code><a href="/metadata">GET /metadata</a></code></td><td>knowledge base metadata (types, functors, rules, facts)</td></tr>
               <tr><td><code><a href="/examples">GET /examples</a></code></td><td>the bundled example names; GET /examples/&lt;name&gt; returns the source</td></tr>
               <tr><td><code><a href="/health">GET /health</a></code></td><td>liveness check</td></tr>
@@ -0,0 +1,177 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo.server;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.modelingvalue.nelumbo.KnowledgeBase;
+import org.modelingvalue.nelumbo.Relation;
+import org.modelingvalue.nelumbo.tools.NelumboEvaluator;
+import org.modelingvalue.nelumbo.tools.NelumboEvaluator.EvalResult;
+
+/**
+ * Streams CSV and JSON-lines facts into a loaded knowledge base and queries rules over them.
+ */
+class FactFilesTest {
+
+    private static final String FAMILY = """
+            import nelumbo.logic
+
+            Person   :: Object
+
+            FactType ::= pc(<Person>,<Person>)
+
+            Person   ::= c(<Person>)
+
+            Person a, b
+
+            c(a)=b <=>  pc(a,b)
+
+            Person   ::= Hendrik, Wilhelmina, Juliana, Beatrix
+            """;
+
+    @Test
+    void csvAndJsonLines() throws IOException {
+        KnowledgeBase base = KnowledgeBaseLoader.load(List.of(new NamedSource("family.nl", FAMILY)));
+        assertEquals(2, FactFiles.load(base, "pc", stream("Hendrik,Juliana\n\nWilhelmina,Juliana\n"), false));
+        assertEquals(1, FactFiles.load(base, "pc", stream("[\"Juliana\",\"Beatrix\"]\n[\"Hendrik\",\"Juliana\"]\n"),
+                true));
+        EvalResult r = NelumboEvaluator.evaluate(base, """
+                Person x
+                c(Hendrik)=x ? [(x=Juliana)][..]
+                c(Juliana)=x ? [(x=Beatrix)][..]
+                """, "q.nl", 0, null, null);
+        assertTrue(r.ok(), () -> "diagnostics: " + r.diagnostics());
+    }
+
+    @Test
+    void columnarRelation() throws IOException {
+        String ages = """
+                import nelumbo.integers
+
+                Person   :: Object
+
+                FactType ::= age(<Person>,<Integer>)
+
+                Person   ::= Hendrik, Wilhelmina, Juliana, Beatrix
+                """;
+        KnowledgeBase base = KnowledgeBaseLoader.load(List.of(new NamedSource("ages.nl", ages)));
+        String[] persons = {"Hendrik", "Wilhelmina", "Juliana", "Beatrix"};
+        int rows = Relation.COLUMNAR_THRESHOLD + 10;
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            csv.append(persons[i % 4]).append(',').append(i).append('\n');
+        }
+        assertEquals(rows, FactFiles.load(base, "age", stream(csv.toString()), false));
+        Relation relation = base.relation(base.factFunctor("age"));
+        assertTrue(relation.isColumnar());
+        assertEquals(rows, relation.size());
+        assertEquals(0, FactFiles.load(base, "age", stream("Wilhelmina,12345\n"), false));
+        // a small batch stays in the persistent sets, a large one is appended to the columns with them
+        assertEquals(1, FactFiles.load(base, "age", stream("Beatrix,1000000\n"), false));
+        csv.setLength(0);
+        for (int i = rows; i < 2 * rows; i++) {
+            csv.append(persons[i % 4]).append(',').append(i).append('\n');
+        }
+        assertEquals(rows, FactFiles.load(base, "age", stream(csv.toString()), false));
+        relation = base.relation(base.factFunctor("age"));
+        assertTrue(relation.isColumnar());
+        assertEquals(2 * rows + 1, relation.size());
+        // equal to the same facts kept in persistent sets, with the same content hash
+        Relation sets = Relation.EMPTY.addFacts(relation.facts());
+        assertFalse(sets.isColumnar());
+        assertEquals(relation.hashCode(), sets.hashCode());
+        assertEquals(relation, sets);
+        assertEquals(sets, relation);
+        EvalResult r = NelumboEvaluator.evaluate(base, """
+                Person p
+                age(p,12345)          ? [(p=Wilhelmina)][..]
+                age(Wilhelmina,12345) ? [()][]
+                age(Hendrik,12345)    ? [][()]
+                age(p,1000000)        ? [(p=Beatrix)][..]
+                age(p,100001)         ? [(p=Wilhelmina)][..]
+                """, "q.nl", 0, null, null);
+        assertTrue(r.ok(), () -> "diagnostics: " + r.diagnostics());
+    }
+
+    @Test
+    void concurrentLoads() throws Exception {
+        String ages = """
+                import nelumbo.integers
+
+                Person   :: Object
+
+                FactType ::= age(<Person>,<Integer>)
+
+                Person   ::= Hendrik, Wilhelmina, Juliana, Beatrix
+                """;
+        KnowledgeBase base = KnowledgeBaseLoader.load(List.of(new NamedSource("ages.nl", ages)));
+        String[] persons = {"Hendrik", "Wilhelmina", "Juliana", "Beatrix"};
+        int rows = 100;
+        List<Callable<Integer>> loads = new ArrayList<>();
+        for (String person : persons) {
+            StringBuilder csv = new StringBuilder();
+            for (int i = 0; i < rows; i++) {
+                csv.append(person).append(',').append(i).append('\n');
+            }
+            loads.add(() -> FactFiles.load(base, "age", stream(csv.toString()), false));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(persons.length);
+        try {
+            for (Future<Integer> added : executor.invokeAll(loads)) {
+                assertEquals(rows, (int) added.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(persons.length * rows, base.relation(base.factFunctor("age")).size());
+    }
+
+    @Test
+    void rejectsBadRows() {
+        KnowledgeBase base = KnowledgeBaseLoader.load(List.of(new NamedSource("family.nl", FAMILY)));
+        assertThrows(IllegalArgumentException.class, () -> FactFiles.load(base, "pc", stream("Hendrik\n"), false));
+        assertThrows(IllegalArgumentException.class, () -> FactFiles.load(base, "pc", stream("Hendrik,Nobody\n"),
+                false));
+        assertThrows(IllegalArgumentException.class, () -> FactFiles.load(base, "cp", stream("Hendrik,Juliana\n"),
+                false));
+    }
+
+    @Test
+    void csvQuoting() {
+        assertArrayEquals(new Object[]{"a,b", "say \"hi\"", "c"}, FactFiles.csv("\"a,b\",\"say \"\"hi\"\"\",c"));
+    }
+
+    private static ByteArrayInputStream stream(String data) {
+        return new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -18,6 +18,9 @@ package org.modelingvalue.nelumbo.server;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.net.URI;
@@ -34,6 +37,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.modelingvalue.nelumbo.KnowledgeBase;
+import org.modelingvalue.nelumbo.server.EvalService.Response;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -95,6 +99,34 @@ class NelumboServerTest {
         return mapper.writeValueAsString(fields);
     }
 
+    @Test
+    void repeatedDocumentIsServedFromCache() throws Exception {
+        HttpResponse<String> first = post("/eval", "Integer r\nfib(12)=r ?\n");
+        HttpResponse<String> second = post("/eval", "Integer r\nfib(12)=r ?\n");
+        assertEquals(200, second.statusCode());
+        assertEquals(first.body(), second.body());
+        assertEquals(1, server.cacheMisses());
+        assertEquals(1, server.cacheHits());
+        // another flag is another response
+        postJson(port, envelope(Map.of("document", "Integer r\nfib(12)=r ?\n", "trace", true)));
+        assertEquals(2, server.cacheMisses());
+    }
+
+    @Test
+    void cachedResponsesCannotBeChanged() {
+        KnowledgeBase base = KnowledgeBaseLoader.load(List.of(new NamedSource("fibonacci.nl", FIB_BASE)));
+        try (EvalService service = new EvalService(base, List.of("fibonacci.nl"), EvalService.DEFAULT_TIMEOUT_MS)) {
+            Response first = service.eval("Integer r\nfib(5)=r ?\n", "text/plain", false);
+            assertThrows(UnsupportedOperationException.class, () -> first.body().put("queries", List.of()));
+            List<?> queries = (List<?>) first.body().get("queries");
+            assertThrows(UnsupportedOperationException.class, queries::clear);
+            Map<?, ?> query = (Map<?, ?>) queries.get(0);
+            assertThrows(UnsupportedOperationException.class, query::clear);
+            assertEquals(first, service.eval("Integer r\nfib(5)=r ?\n", "text/plain", false));
+            assertEquals(1, service.cacheHits());
+        }
+    }
+
     @Test
     void evalAcceptsJsonEnvelope() throws Exception {
         HttpResponse<String> response = postJson(port, envelope(Map.of("document", "Integer r\nfib(5)=r ?\n")));
@@ -144,6 +176,78 @@ class NelumboServerTest {
         }
     }
 
+    @Test
+    void envelopeLimitStopsCompoundQueryEarly() throws Exception {
+        String family = new String(getClass().getResourceAsStream(
+                "/org/modelingvalue/nelumbo/examples/family.nl").readAllBytes(), StandardCharsets.UTF_8);
+        NelumboServer fam = new NelumboServer(
+                KnowledgeBaseLoader.load(List.of(new NamedSource("family.nl", family))), List.of("family.nl"));
+        int famPort = fam.start(0);
+        try {
+            // Two grandparents of Willem through Beatrix; the enumeration stops after the first solution.
+            HttpResponse<String> response = postJson(famPort, envelope(Map.of("document",
+                    "Person a\nPerson b\npc(a, b) & pc(b, Willem) ?\n", "limit", 0)));
+            assertEquals(200, response.statusCode());
+            JsonNode query = mapper.readTree(response.body()).get("queries").get(0);
+            assertEquals(0, query.get("bindings").size(), "limit should cap bindings: " + query);
+            assertTrue(query.get("truncated").asBoolean(), "truncation should be flagged: " + query);
+        } finally {
+            fam.stop();
+        }
+    }
+
+    @Test
+    void envelopeBudgetStopsInference() throws Exception {
+        String family = new String(getClass().getResourceAsStream(
+                "/org/modelingvalue/nelumbo/examples/family.nl").readAllBytes(), StandardCharsets.UTF_8);
+        NelumboServer fam = new NelumboServer(
+                KnowledgeBaseLoader.load(List.of(new NamedSource("family.nl", family))), List.of("family.nl"));
+        int famPort = fam.start(0);
+        try {
+            // the descendants of Hendrik need many (recursive) rule applications, and family.nl does not ask for
+            // them itself, so they are not memoized at load
+            HttpResponse<String> response = postJson(famPort, envelope(Map.of("document",
+                    "Person q\nd(Hendrik)=q ?\n", "maxRuleApplications", 1)));
+            assertEquals(422, response.statusCode());
+            JsonNode body = mapper.readTree(response.body());
+            assertEquals("budget", body.get("error").asText());
+            assertEquals("rule_applications", body.get("resource").asText());
+        } finally {
+            fam.stop();
+        }
+    }
+
+    @Test
+    void envelopeProfileReportsRules() throws Exception {
+        String family = new String(getClass().getResourceAsStream(
+                "/org/modelingvalue/nelumbo/examples/family.nl").readAllBytes(), StandardCharsets.UTF_8);
+        NelumboServer fam = new NelumboServer(
+                KnowledgeBaseLoader.load(List.of(new NamedSource("family.nl", family))), List.of("family.nl"));
+        int famPort = fam.start(0);
+        try {
+            HttpResponse<String> response = postJson(famPort, envelope(Map.of("document",
+                    "Person q\nd(Hendrik)=q ?\n", "profile", true)));
+            assertEquals(200, response.statusCode());
+            JsonNode profile = mapper.readTree(response.body()).get("profile");
+            assertTrue(profile != null && profile.isArray() && profile.size() > 0, "expected a non-empty profile");
+            boolean rules = false;
+            for (JsonNode entry : profile) {
+                rules |= "rule".equals(entry.get("kind").asText()) && entry.get("invocations").asLong() > 0;
+            }
+            assertTrue(rules, "the descendant rules should have been profiled");
+        } finally {
+            fam.stop();
+        }
+    }
+
+    @Test
+    void profileQueryParameterMustMatchExactly() throws Exception {
+        String document = "Integer r\nfib(12)=r ?\n";
+        assertNotNull(mapper.readTree(post("/eval?profile=true", document).body()).get("profile"));
+        assertNull(mapper.readTree(post("/eval?noprofile=true", document).body()).get("profile"));
+        assertNull(mapper.readTree(post("/eval?profile=truest", document).body()).get("profile"));
+    }
+
     @Test
     void rootServesInfoPage() throws Exception {
         HttpResponse<String> response = get("/");
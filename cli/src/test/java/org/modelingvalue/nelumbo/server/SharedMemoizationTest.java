@@ -0,0 +1,123 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.modelingvalue.nelumbo.KnowledgeBase;
+import org.modelingvalue.nelumbo.MemoTable;
+import org.modelingvalue.nelumbo.Profiler;
+import org.modelingvalue.nelumbo.tools.NelumboEvaluator;
+import org.modelingvalue.nelumbo.tools.NelumboEvaluator.EvalResult;
+
+/**
+ * Request knowledge bases write their results through to the shared memo tier of the base, except the results that
+ * depend on something the request changed.
+ */
+class SharedMemoizationTest {
+
+    private static final String FAMILY = """
+            import nelumbo.logic
+
+            Person   :: Object
+
+            FactType ::= pc(<Person>,<Person>)
+
+            Person   ::= c(<Person>), d(<Person>)
+
+            Person a, b, c
+
+            c(a)=b <=>  pc(a,b)
+            d(a)=c <=>  c(a)=c |
+                        E[b](d(a)=b & c(b)=c)
+
+            Person   ::= Hendrik, Juliana, Beatrix
+
+            fact pc(Hendrik, Juliana)
+            """;
+
+    private static final String QUERY = """
+            Person x
+            d(Hendrik)=x ? [(x=Juliana)][..]
+            """;
+
+    @Test
+    void requestsShareBaseResults() {
+        KnowledgeBase base = KnowledgeBaseLoader.load(List.of(new NamedSource("family.nl", FAMILY)));
+        base.shareMemoization(MemoTable.MAX_SHARED_MEMOIZ_BYTES);
+        assertOk(NelumboEvaluator.evaluate(base, QUERY, "a.nl", 0, null, null));
+        assertTrue(base.memoTable().size() > 0);
+
+        Profiler warm = new Profiler();
+        assertOk(NelumboEvaluator.evaluate(base, QUERY, "b.nl", 0, null, warm));
+        assertTrue(sum(warm, "memoHits") > 0, warm::toString);
+        assertEquals(0L, sum(warm, "memoMisses"), warm::toString);
+
+        assertOk(NelumboEvaluator.evaluate(base, """
+                fact pc(Juliana, Beatrix)
+                Person x
+                d(Hendrik)=x ? [(x=Juliana),(x=Beatrix)][..]
+                """, "c.nl", 0, null, null));
+        assertOk(NelumboEvaluator.evaluate(base, QUERY, "d.nl", 0, null, null));
+    }
+
+    @Test
+    void staleRequestsDoNotShareResults() throws IOException {
+        KnowledgeBase base = KnowledgeBaseLoader.load(List.of(new NamedSource("family.nl", FAMILY)));
+        base.shareMemoization(MemoTable.MAX_SHARED_MEMOIZ_BYTES);
+        KnowledgeBase request = new KnowledgeBase(base);
+        assertEquals(1, FactFiles.load(base, "pc", stream("Juliana,Beatrix\n"), false));
+        // the request was created before the load, so it still infers from the old facts
+        assertOk(NelumboEvaluator.evaluate(request, QUERY, "a.nl", 0, null, null));
+        assertOk(NelumboEvaluator.evaluate(base, """
+                Person x
+                d(Hendrik)=x ? [(x=Juliana),(x=Beatrix)][..]
+                """, "b.nl", 0, null, null));
+    }
+
+    @Test
+    void sharedTierHasABudgetOfItsOwn() {
+        KnowledgeBase base = KnowledgeBaseLoader.load(List.of(new NamedSource("family.nl", FAMILY)));
+        base.shareMemoization(3 * MemoTable.MAX_LOGIC_MEMOIZ_BYTES);
+        assertEquals(3 * MemoTable.MAX_LOGIC_MEMOIZ_BYTES, base.memoTable().budget());
+        assertEquals(MemoTable.MAX_LOGIC_MEMOIZ_BYTES, new KnowledgeBase(base).memoTable().budget());
+        assertThrows(IllegalArgumentException.class,
+                () -> KnowledgeBase.BASE.shareMemoization(MemoTable.MAX_SHARED_MEMOIZ_BYTES));
+        assertFalse(KnowledgeBase.BASE.sharedMemoization());
+    }
+
+    private static ByteArrayInputStream stream(String data) {
+        return new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long sum(Profiler profiler, String key) {
+        return profiler.report().stream().mapToLong(s -> (Long) s.get(key)).sum();
+    }
+
+    private static void assertOk(EvalResult r) {
+        assertTrue(r.ok(), () -> "diagnostics: " + r.diagnostics());
+    }
+}
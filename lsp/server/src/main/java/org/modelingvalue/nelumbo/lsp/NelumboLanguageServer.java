@@ -44,6 +44,7 @@ import org.eclipse.lsp4j.services.LanguageServer;
 import org.eclipse.lsp4j.services.TextDocumentService;
 import org.eclipse.lsp4j.services.WorkspaceService;
 import org.modelingvalue.nelumbo.KnowledgeBase;
+import org.modelingvalue.nelumbo.MemoTable;
 import org.modelingvalue.nelumbo.NelumboConstants;
 
 public class NelumboLanguageServer implements LanguageServer, LanguageClientAware {
@@ -90,6 +91,12 @@ public class NelumboLanguageServer implements LanguageServer, LanguageClientAwar
             }
             workspace.resolve();
         }
+        // the documents derive from a model of their own, never directly from BASE, and its memo table is their
+        // shared tier from here on
+        if (workspace.getBaseKnowledgeBase() == KnowledgeBase.BASE) {
+            workspace.setBaseKnowledgeBase(new KnowledgeBase(KnowledgeBase.BASE));
+        }
+        workspace.getBaseKnowledgeBase().shareMemoization(MemoTable.MAX_SHARED_MEMOIZ_BYTES);
 
         ServerCapabilities serverCapabilities = new ServerCapabilities();
         serverCapabilities.setWorkspace(makeWorkspaceCapabilities());
@@ -126,7 +133,7 @@ public class NelumboLanguageServer implements LanguageServer, LanguageClientAwar
     private static TextDocumentSyncOptions makeDocSyncCapabilities() {
         TextDocumentSyncOptions textDocumentSyncOptions = new TextDocumentSyncOptions();
         textDocumentSyncOptions.setOpenClose(true);
-        textDocumentSyncOptions.setChange(TextDocumentSyncKind.Full);
+        textDocumentSyncOptions.setChange(TextDocumentSyncKind.Incremental);
         textDocumentSyncOptions.setSave(new SaveOptions(true));
         return textDocumentSyncOptions;
     }
@@ -28,7 +28,9 @@ import org.eclipse.lsp4j.PublishDiagnosticsParams;
 import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.services.LanguageClient;
 import org.modelingvalue.nelumbo.AstElement;
+import org.modelingvalue.nelumbo.Budget;
 import org.modelingvalue.nelumbo.KnowledgeBase;
+import org.modelingvalue.nelumbo.NelumboBudgetException;
 import org.modelingvalue.nelumbo.NelumboTimeoutException;
 import org.modelingvalue.nelumbo.Node;
 import org.modelingvalue.nelumbo.syntax.Parser;
@@ -49,9 +51,18 @@ public record NlDocument(Workspace workspace,
         return of(document.workspace(), newContent, document.version(), document.uri());
     }
 
+    /** With the tokens of the new content, as {@link Tokenizer#retokenize} made them from the edits. */
+    public static NlDocument of(NlDocument document, TokenizerResult tokenizerResult) {
+        return of(document.workspace(), document.version(), document.uri(), tokenizerResult);
+    }
+
     public static NlDocument of(Workspace workspace, String content, int version, String uri) {
-        TokenizerResult tokenizerResult = new Tokenizer(content, uri).tokenize();
-        ParserResult    parserResult    = parse(workspace, tokenizerResult);
+        return of(workspace, version, uri, new Tokenizer(content, uri).tokenize());
+    }
+
+    private static NlDocument of(Workspace workspace, int version, String uri, TokenizerResult tokenizerResult) {
+        String       content      = tokenizerResult.input();
+        ParserResult parserResult = parse(workspace, uri, tokenizerResult);
         publishDiagnosticsAsync(workspace, uri, tokenizerResult, parserResult);
 
         U.DEBUG("    #tokens    : %4d", tokenizerResult.listAll().size());
@@ -69,20 +80,29 @@ public record NlDocument(Workspace workspace,
 
     /**
      * Parse against a deadline-bearing child KB when the workspace carries one (public /lsp), so a pathological
-     * document cannot occupy the shared engine pool indefinitely. A timeout yields an empty (root-less) result.
+     * document cannot occupy the shared engine pool indefinitely. The same holds for the inference budget of the
+     * document. A timeout or an exhausted budget yields an empty (root-less) result. The whole document is parsed on
+     * every change; only its evaluation resumes from the checkpoints kept by {@link QueryResultCache}.
      */
-    private static ParserResult parse(Workspace workspace, TokenizerResult tokenizerResult) {
-        long deadlineMs = workspace.getEvalDeadlineMs();
-        if (deadlineMs <= 0) {
+    private static ParserResult parse(Workspace workspace, String uri, TokenizerResult tokenizerResult) {
+        long   deadlineMs = workspace.getEvalDeadlineMs();
+        Budget budget     = workspace.getEvalBudget();
+        if (deadlineMs <= 0 && budget.isUnlimited()) {
             return Parser.parse(workspace.getBaseKnowledgeBase(), tokenizerResult);
         }
         KnowledgeBase parseKb = new KnowledgeBase(workspace.getBaseKnowledgeBase());
-        parseKb.setDeadlineNanos(System.nanoTime() + deadlineMs * 1_000_000L);
+        if (deadlineMs > 0) {
+            parseKb.setDeadlineNanos(System.nanoTime() + deadlineMs * 1_000_000L);
+        }
+        parseKb.setBudget(budget);
         try {
             return Parser.parse(parseKb, tokenizerResult);
         } catch (NelumboTimeoutException e) {
             U.DEBUG("    parse timed out after %d ms", deadlineMs);
             return new ParserResult(tokenizerResult, false);
+        } catch (NelumboBudgetException e) {
+            U.DEBUG("    parse stopped: %s", e.getMessage());
+            return new ParserResult(tokenizerResult, false);
         }
     }
 
@@ -19,6 +19,8 @@ package org.modelingvalue.nelumbo.lsp;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.List;
 
+import org.modelingvalue.nelumbo.syntax.Tokenizer.TokenizerResult;
+
 public class NlDocumentManager {
     /** Safety backstop against a hostile client looping didOpen with unique URIs; a real page uses a handful. */
     public static final int MAX_DOCUMENTS = 64;
@@ -56,6 +58,14 @@ public class NlDocumentManager {
         }
     }
 
+    public void updateDocument(String uri, TokenizerResult tokenizerResult) {
+        NlDocument document = getDocument(uri);
+        if (document != null) {
+            documentCache.put(uri, NlDocument.of(document, tokenizerResult));
+            queryResultCache.schedule(uri);
+        }
+    }
+
     public NlDocument getDocument(String uri) {
         return documentCache.get(uri);
     }
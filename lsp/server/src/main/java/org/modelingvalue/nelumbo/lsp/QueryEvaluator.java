@@ -22,8 +22,11 @@ import java.util.Map;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
 import org.modelingvalue.nelumbo.AstElement;
+import org.modelingvalue.nelumbo.Budget;
+import org.modelingvalue.nelumbo.Checkpoints;
 import org.modelingvalue.nelumbo.Evaluatable;
 import org.modelingvalue.nelumbo.KnowledgeBase;
+import org.modelingvalue.nelumbo.NelumboBudgetException;
 import org.modelingvalue.nelumbo.NelumboTimeoutException;
 import org.modelingvalue.nelumbo.Node;
 import org.modelingvalue.nelumbo.logic.InferResult;
@@ -56,18 +59,49 @@ public final class QueryEvaluator {
      * their results; the first unreached query gets an ERROR result; remaining queries are absent from the map.
      */
     public static Map<Query, QueryResult> evaluate(KnowledgeBase base, long deadlineMs, String content, String uri) {
-        Map<Query, QueryResult> results = new LinkedHashMap<>();
-        KnowledgeBase           evalKb  = new KnowledgeBase(base);
+        return evaluate(base, deadlineMs, Budget.UNLIMITED, content, uri);
+    }
+
+    /** Same, with an inference {@code budget}; a query that exhausts it gets an ERROR result, like a timeout. */
+    public static Map<Query, QueryResult> evaluate(KnowledgeBase base, long deadlineMs, Budget budget, String content, String uri) {
+        return evaluate(base, deadlineMs, budget, content, uri, null).results();
+    }
+
+    /** The results per query, and the checkpoints from which the next evaluation of the edited document resumes. */
+    public record Evaluation(Map<Query, QueryResult> results, Checkpoints<QueryResult> checkpoints) {
+    }
+
+    /**
+     * Same, but the roots before the edit since the {@code previous} evaluation (may be null) are not evaluated again:
+     * their results are taken from the previous checkpoints and the KB is restored to the last of them.
+     */
+    @SuppressWarnings("unchecked")
+    public static Evaluation evaluate(KnowledgeBase base, long deadlineMs, Budget budget, String content, String uri,
+            Checkpoints<QueryResult> previous) {
+        Map<Query, QueryResult>    results     = new LinkedHashMap<>();
+        Checkpoints<QueryResult>[] checkpoints = new Checkpoints[1];
+        KnowledgeBase              evalKb      = new KnowledgeBase(base);
         if (deadlineMs > 0) {
             evalKb.setDeadlineNanos(System.nanoTime() + deadlineMs * 1_000_000L);
         }
+        evalKb.setBudget(budget);
         try {
             evalKb.run(() -> {
                 KnowledgeBase knowledgeBase = KnowledgeBase.CURRENT.get();
                 ParserResult  parsed        = new Parser(new Tokenizer(content, uri).tokenize()).parseNonThrowing();
                 ParserResult  throwing      = new ParserResult(null, true);
-                for (Node root : parsed.roots()) {
+                org.modelingvalue.collections.List<Node> roots = parsed.roots();
+                checkpoints[0] = new Checkpoints<>(base, content, knowledgeBase.snapshot());
+                int resumed = checkpoints[0].resume(previous, knowledgeBase, roots);
+                for (int i = 0; i < resumed; i++) {
+                    QueryResult result = checkpoints[0].outcome(i);
+                    if (result != null && roots.get(i) instanceof Query query) {
+                        results.put(query, result);
+                    }
+                }
+                for (Node root : roots.sublist(resumed, roots.size())) {
                     if (!(root instanceof Evaluatable eval)) {
+                        checkpoints[0].record(root, knowledgeBase, null);
                         continue;
                     }
                     try {
@@ -87,6 +121,11 @@ public final class QueryEvaluator {
                             results.put(query, QueryResult.error("evaluation exceeded the deadline"));
                         }
                         break;
+                    } catch (NelumboBudgetException bex) {
+                        if (eval instanceof Query query) {
+                            results.put(query, QueryResult.error(bex.getMessage()));
+                        }
+                        break;
                     } catch (ParseException exc) {
                         if (eval instanceof Query query) {
                             results.put(query, toResult(query, exc));
@@ -96,12 +135,13 @@ public final class QueryEvaluator {
                             break;
                         }
                     }
+                    checkpoints[0].record(root, knowledgeBase, eval instanceof Query query ? results.get(query) : null);
                 }
             });
-        } catch (NelumboTimeoutException ignored) {
+        } catch (NelumboTimeoutException | NelumboBudgetException ignored) {
             // partial results already in the map; return them as-is
         }
-        return results;
+        return new Evaluation(results, checkpoints[0]);
     }
 
     private static QueryResult toResult(Query query, ParseException exc) {
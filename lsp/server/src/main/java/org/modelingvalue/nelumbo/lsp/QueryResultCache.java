@@ -35,6 +35,8 @@ import org.eclipse.lsp4j.InlayHintKind;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.services.LanguageClient;
+import org.modelingvalue.nelumbo.Budget;
+import org.modelingvalue.nelumbo.Checkpoints;
 import org.modelingvalue.nelumbo.logic.Query;
 import org.modelingvalue.nelumbo.syntax.Token;
 
@@ -47,19 +49,20 @@ import org.modelingvalue.nelumbo.syntax.Token;
 public class QueryResultCache {
     private static final long DEBOUNCE_MS = 300;
 
-    private final NlDocumentManager                             documentManager;
-    private final ScheduledExecutorService                      scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+    private final NlDocumentManager                                   documentManager;
+    private final ScheduledExecutorService                            scheduler   = Executors.newSingleThreadScheduledExecutor(r -> {
         Thread t = new Thread(r, "nelumbo-query-eval");
         t.setDaemon(true);
         return t;
     });
-    private final ExecutorService                               backstop  = Executors.newCachedThreadPool(r -> {
+    private final ExecutorService                                     backstop    = Executors.newCachedThreadPool(r -> {
         Thread t = new Thread(r, "nelumbo-query-eval-backstop");
         t.setDaemon(true);
         return t;
     });
-    private final ConcurrentHashMap<String, List<InlayHint>>   hints     = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, ScheduledFuture<?>> pending  = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, List<InlayHint>>          hints       = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ScheduledFuture<?>>       pending     = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Checkpoints<QueryResult>> checkpoints = new ConcurrentHashMap<>();
 
     public QueryResultCache(NlDocumentManager documentManager) {
         this.documentManager = documentManager;
@@ -85,6 +88,7 @@ public class QueryResultCache {
             prev.cancel(false);
         }
         hints.remove(uri);
+        checkpoints.remove(uri);
     }
 
     /** Stop the debounce scheduler and backstop executor; used when an embedded server's connection closes. */
@@ -100,16 +104,18 @@ public class QueryResultCache {
             return;
         }
         long             deadlineMs  = workspace.getEvalDeadlineMs();
+        Budget           budget      = workspace.getEvalBudget();
         List<Diagnostic> diagnostics = NlDocument.baseDiagnostics(document.tokenizerResult(), document.parserResult());
         try {
-            Map<Query, QueryResult> results;
+            Checkpoints<QueryResult>  previous = checkpoints.get(uri);
+            QueryEvaluator.Evaluation evaluation;
             if (deadlineMs > 0) {
                 String  content = document.content();
                 String  docUri  = uri;
-                Future<Map<Query, QueryResult>> future = backstop.submit(
-                        () -> QueryEvaluator.evaluate(workspace.getBaseKnowledgeBase(), deadlineMs, content, docUri));
+                Future<QueryEvaluator.Evaluation> future = backstop.submit(
+                        () -> QueryEvaluator.evaluate(workspace.getBaseKnowledgeBase(), deadlineMs, budget, content, docUri, previous));
                 try {
-                    results = future.get(deadlineMs + 2000, TimeUnit.MILLISECONDS);
+                    evaluation = future.get(deadlineMs + 2000, TimeUnit.MILLISECONDS);
                 } catch (TimeoutException te) {
                     future.cancel(true);
                     hints.put(uri, List.of());
@@ -131,8 +137,12 @@ public class QueryResultCache {
                     return;
                 }
             } else {
-                results = QueryEvaluator.evaluate(workspace.getBaseKnowledgeBase(), 0, document.content(), uri);
+                evaluation = QueryEvaluator.evaluate(workspace.getBaseKnowledgeBase(), 0, budget, document.content(), uri, previous);
             }
+            if (evaluation.checkpoints() != null) {
+                checkpoints.put(uri, evaluation.checkpoints());
+            }
+            Map<Query, QueryResult> results = evaluation.results();
             List<InlayHint>         list    = new ArrayList<>();
             for (Map.Entry<Query, QueryResult> e : results.entrySet()) {
                 QueryResult result = e.getValue();
@@ -19,24 +19,27 @@ package org.modelingvalue.nelumbo.lsp;
 import java.io.IOException;
 import java.nio.file.Path;
 
+import org.modelingvalue.nelumbo.Budget;
+
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 
 public record Setting(Formatting formatting,
                       Classpath classpath,
-                      boolean debugging) {
+                      boolean debugging,
+                      Budget budget) {
     private static final ObjectMapper jacksonObjectMapper = new ObjectMapper()//
                                                                               .setPropertyNamingStrategy(PropertyNamingStrategies.UPPER_CAMEL_CASE)//
                                                                               .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
     public Setting() {
-        this(new Formatting(), new Classpath(), false);
+        this(new Formatting(), new Classpath(), false, Budget.UNLIMITED);
     }
 
     @Override
     public String toString() {
-        return "Setting{formatting=" + formatting + ", classpath=" + classpath + ", debugging=" + debugging + "}";
+        return "Setting{formatting=" + formatting + ", classpath=" + classpath + ", debugging=" + debugging + ", budget=" + budget + "}";
     }
 
     public record Formatting(PropsSpaceLine propsSpaceLine) {
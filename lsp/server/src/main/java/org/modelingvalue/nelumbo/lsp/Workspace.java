@@ -37,6 +37,7 @@ import java.util.stream.Stream;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import org.eclipse.lsp4j.services.LanguageClient;
+import org.modelingvalue.nelumbo.Budget;
 import org.modelingvalue.nelumbo.KnowledgeBase;
 import org.tomlj.Toml;
 import org.tomlj.TomlParseResult;
@@ -44,15 +45,16 @@ import org.tomlj.TomlTable;
 
 @SuppressWarnings("DuplicatedCode")
 public class Workspace {
-    private          Setting           setting           = new Setting();
-    private final    List<String>      folders           = new ArrayList<>();
-    private final    List<Path>        dependencies      = new ArrayList<>();
-    private          NlDocumentManager documentManager;
-    private volatile LanguageClient    client;
-    private          KnowledgeBase     baseKnowledgeBase = KnowledgeBase.BASE;
-    private          long              evalDeadlineMs;
+    private          Setting             setting           = new Setting();
+    private final    List<String>        folders           = new ArrayList<>();
+    private final    List<Path>          dependencies      = new ArrayList<>();
+    private          NlDocumentManager   documentManager;
+    private volatile LanguageClient      client;
+    private          KnowledgeBase       baseKnowledgeBase = KnowledgeBase.BASE;
+    private          long                evalDeadlineMs;
+    private          Budget              evalBudget        = Budget.UNLIMITED;
     // embedded (public /lsp) mode never resolves client-supplied workspace folders (no filesystem walk)
-    private          boolean           embedded;
+    private          boolean             embedded;
 
     public Workspace() {
         findSettings();
@@ -98,6 +100,15 @@ public class Workspace {
         this.evalDeadlineMs = evalDeadlineMs;
     }
 
+    public Budget getEvalBudget() {
+        return evalBudget;
+    }
+
+    /** Sets the inference budget of the documents, {@code null} for none; taken from the {@link Setting}. */
+    public void setEvalBudget(Budget evalBudget) {
+        this.evalBudget = evalBudget != null ? evalBudget : Budget.UNLIMITED;
+    }
+
     public boolean isEmbedded() {
         return embedded;
     }
@@ -119,6 +130,7 @@ public class Workspace {
 
     public void setSetting(Setting setting) {
         this.setting = setting;
+        setEvalBudget(setting.budget());
     }
 
     public List<String> getFolders() {
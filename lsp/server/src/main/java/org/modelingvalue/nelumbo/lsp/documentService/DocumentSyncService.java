@@ -22,10 +22,15 @@ import org.eclipse.lsp4j.DidChangeTextDocumentParams;
 import org.eclipse.lsp4j.DidCloseTextDocumentParams;
 import org.eclipse.lsp4j.DidOpenTextDocumentParams;
 import org.eclipse.lsp4j.DidSaveTextDocumentParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
 import org.eclipse.lsp4j.TextDocumentIdentifier;
 import org.eclipse.lsp4j.TextDocumentItem;
+import org.modelingvalue.nelumbo.lsp.NlDocument;
 import org.modelingvalue.nelumbo.lsp.NlDocumentManager;
+import org.modelingvalue.nelumbo.syntax.Tokenizer;
+import org.modelingvalue.nelumbo.syntax.Tokenizer.TokenizerResult;
 
 public class DocumentSyncService extends DocumentServiceAdapter {
     public DocumentSyncService(NlDocumentManager documentManager) {
@@ -38,16 +43,52 @@ public class DocumentSyncService extends DocumentServiceAdapter {
         add(textDocument.getText(), textDocument.getUri(), textDocument.getVersion());
     }
 
+    /**
+     * Applies the changes in order. A change with a range is spliced into the content and only the damaged region is
+     * retokenized, taking over the tokens of the current document; a change without one replaces the whole content. The
+     * result is parsed once, as a whole.
+     */
     @Override
     public void didChange(DidChangeTextDocumentParams params) {
         TextDocumentIdentifier               textDocument   = params.getTextDocument();
         List<TextDocumentContentChangeEvent> contentChanges = params.getContentChanges();
-        if (!contentChanges.isEmpty()) {
-            if (1 < contentChanges.size()) {
-                System.err.println("    multiple content changes not supported: " + contentChanges.size());
+        NlDocument                           document       = documentManager.getDocument(textDocument.getUri());
+        if (contentChanges.isEmpty() || document == null) {
+            return;
+        }
+        String          content = document.content();
+        TokenizerResult tokens  = document.tokenizerResult();
+        for (TextDocumentContentChangeEvent change : contentChanges) {
+            Range range = change.getRange();
+            if (range == null) {
+                content = change.getText();
+                tokens = null;
+            } else {
+                int start = offset(content, range.getStart());
+                int end   = Math.max(start, offset(content, range.getEnd()));
+                content = content.substring(0, start) + change.getText() + content.substring(end);
+                tokens = tokens != null ? Tokenizer.retokenize(tokens, start, end, change.getText()) : null;
+            }
+        }
+        if (tokens != null && !content.isBlank()) {
+            documentManager.updateDocument(textDocument.getUri(), tokens);
+        } else {
+            update(content, textDocument.getUri());
+        }
+    }
+
+    /** The index in content of an LSP position (both count UTF-16 code units), clamped to the content. */
+    private static int offset(String content, Position position) {
+        int index = 0;
+        for (int line = 0; line < position.getLine(); line++) {
+            int newline = content.indexOf('\n', index);
+            if (newline < 0) {
+                return content.length();
             }
-            update(contentChanges.getFirst().getText(), textDocument.getUri());
+            index = newline + 1;
         }
+        int lineEnd = content.indexOf('\n', index);
+        return Math.min(index + position.getCharacter(), lineEnd < 0 ? content.length() : lineEnd);
     }
 
     @Override
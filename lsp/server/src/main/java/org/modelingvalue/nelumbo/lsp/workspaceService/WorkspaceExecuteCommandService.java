@@ -70,7 +70,7 @@ public class WorkspaceExecuteCommandService extends WorkspaceServiceAdapter {
             return;
         }
 
-        Map<Query, QueryResult> results = QueryEvaluator.evaluate(ws.getBaseKnowledgeBase(), ws.getEvalDeadlineMs(), document.content(), document.uri());
+        Map<Query, QueryResult> results = QueryEvaluator.evaluate(ws.getBaseKnowledgeBase(), ws.getEvalDeadlineMs(), ws.getEvalBudget(), document.content(), document.uri());
 
         QueryResult result = null;
         for (Map.Entry<Query, QueryResult> e : results.entrySet()) {
@@ -20,9 +20,12 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
+import org.modelingvalue.nelumbo.Budget;
 import org.modelingvalue.nelumbo.KnowledgeBase;
 import org.modelingvalue.nelumbo.logic.Query;
 import org.modelingvalue.nelumbo.syntax.ParseException;
@@ -77,4 +80,20 @@ public class QueryEvaluatorSeedingTest {
         boolean timedOut = results.values().stream().anyMatch(r -> r.kind() == QueryResult.Kind.ERROR && r.inferred().toLowerCase().contains("deadline"));
         assertTrue(timedOut || results.isEmpty(), "expected a deadline marker or no results, got: " + results);
     }
+
+    @Test
+    public void editResumesAfterTheUnchangedQueries() {
+        KnowledgeBase             kb     = seeded(FIB_SEED);
+        String                    doc    = "Integer r\nfib(5)=r ?\nfib(6)=r ?\n";
+        QueryEvaluator.Evaluation first  = QueryEvaluator.evaluate(kb, 0, Budget.UNLIMITED, doc, "inmemory://resume.nl", null);
+        QueryEvaluator.Evaluation second = QueryEvaluator.evaluate(kb, 0, Budget.UNLIMITED, doc.replace("fib(6)", "fib(7)"), "inmemory://resume.nl", first.checkpoints());
+        assertEquals(0, first.checkpoints().resumed());
+        assertTrue(second.checkpoints().resumed() > 0, "expected the first query to be taken over from the checkpoints");
+        assertEquals(first.checkpoints().size(), second.checkpoints().size());
+        List<QueryResult> before = new ArrayList<>(first.results().values());
+        List<QueryResult> after  = new ArrayList<>(second.results().values());
+        assertEquals(2, after.size());
+        assertEquals(before.get(0), after.get(0));
+        assertTrue(after.get(1).inferred().contains("13"), "expected fib(7) result to mention 13, got: " + after.get(1).inferred());
+    }
 }
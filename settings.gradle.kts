@@ -30,6 +30,9 @@ include("lsp:server")
 include("lsp:plugins:eclipse")
 include("lsp:plugins:intellij")
 
+// JMH benchmarks (inference, parsing, tokenizing)
+include("bench")
+
 val inEclipse: String? = System.getenv("GRADLE_ECLIPSE")
 val localImmutables = file("../immutable-collections")
 val useLocalImmutables = inEclipse == "true" || localImmutables.isDirectory
@@ -0,0 +1,113 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo;
+
+import java.util.ArrayList;
+
+import org.modelingvalue.collections.List;
+import org.modelingvalue.nelumbo.KnowledgeBase.Snapshot;
+import org.modelingvalue.nelumbo.syntax.Token;
+
+/**
+ * The state of a {@link KnowledgeBase} after each top-level root of an evaluated document, with the outcome the
+ * evaluation gave for that root. When the edited document is evaluated again, the roots before the edit are not: the
+ * knowledge base is restored to the checkpoint of the last unchanged root and the outcomes up to there are reused.
+ * <p>
+ * Parsing is not resumed; a document parses as one expression, so its roots are only known once it is parsed as a
+ * whole. The checkpoints are therefore taken after parsing, on top of the declarations of the new document.
+ */
+public final class Checkpoints<R> {
+
+    private record Checkpoint<R>(Node root, int end, Snapshot state, R outcome) {
+    }
+
+    private final KnowledgeBase                 base;
+    private final String                        input;
+    private final Snapshot                      parsed;
+    private final java.util.List<Checkpoint<R>> checkpoints = new ArrayList<>();
+    private int                                 resumed;
+
+    /** For the evaluation of {@code input} in a child of {@code base}, in the state that parsing it left. */
+    public Checkpoints(KnowledgeBase base, String input, Snapshot parsed) {
+        this.base = base;
+        this.input = input;
+        this.parsed = parsed;
+    }
+
+    /**
+     * Takes over the checkpoints of {@code previous} for the leading {@code roots} that are unchanged: equal to the
+     * previous roots and ending before the first character where the inputs differ. The {@code knowledgeBase} is
+     * restored to the state after the last of them, keeping the declarations of the new document. Nothing is taken
+     * over when the base differs or when rules, facts or transforms were declared differently.
+     *
+     * @return the number of roots that need no evaluation
+     */
+    public int resume(Checkpoints<R> previous, KnowledgeBase knowledgeBase, List<Node> roots) {
+        int n = 0;
+        if (previous != null && previous.base == base && previous.parsed.infersLike(parsed)) {
+            int edit = mismatch(previous.input, input);
+            while (n < roots.size() && n < previous.checkpoints.size()) {
+                Checkpoint<R> checkpoint = previous.checkpoints.get(n);
+                Node          root       = roots.get(n);
+                Token         last       = root.lastToken();
+                // roots that parsing derives from the previous one (the rule of a fact type) have no tokens
+                int           end        = last != null ? last.indexEnd() : -1;
+                if (end != checkpoint.end() || end >= edit || !root.equals(checkpoint.root())) {
+                    break;
+                }
+                n++;
+            }
+            if (n > 0) {
+                checkpoints.addAll(previous.checkpoints.subList(0, n));
+                knowledgeBase.restore(parsed.evaluated(checkpoints.get(n - 1).state()));
+            }
+        }
+        resumed = n;
+        return n;
+    }
+
+    /** Records the state of {@code knowledgeBase} after evaluating the next {@code root}, which gave {@code outcome}. */
+    public void record(Node root, KnowledgeBase knowledgeBase, R outcome) {
+        Token last = root.lastToken();
+        checkpoints.add(new Checkpoint<>(root, last != null ? last.indexEnd() : -1, knowledgeBase.snapshot(), outcome));
+    }
+
+    /** The outcome recorded for the root at the given index. */
+    public R outcome(int root) {
+        return checkpoints.get(root).outcome();
+    }
+
+    public int size() {
+        return checkpoints.size();
+    }
+
+    /** The number of roots taken over from the previous checkpoints. */
+    public int resumed() {
+        return resumed;
+    }
+
+    private static int mismatch(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        for (int i = 0; i < length; i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                return i;
+            }
+        }
+        return a.length() == b.length() ? Integer.MAX_VALUE : length;
+    }
+
+}
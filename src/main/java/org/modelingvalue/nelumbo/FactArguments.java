@@ -0,0 +1,135 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo;
+
+import java.lang.reflect.Constructor;
+import java.math.BigInteger;
+import java.util.HashMap;
+
+import org.modelingvalue.collections.List;
+import org.modelingvalue.nelumbo.integers.NInteger;
+import org.modelingvalue.nelumbo.lang.Functor;
+import org.modelingvalue.nelumbo.lang.Type;
+import org.modelingvalue.nelumbo.logic.Predicate;
+import org.modelingvalue.nelumbo.strings.NString;
+import org.modelingvalue.nelumbo.syntax.ParseException;
+
+/**
+ * Turns the rows of {@link KnowledgeBase#loadFacts(Functor, java.util.stream.Stream)} into facts of one functor.
+ * Nodes are taken as they are. A string that names a constant (a functor without arguments) of the argument type
+ * becomes that constant; otherwise numbers and strings become literals for arguments to which an Integer or a String
+ * can be assigned. Constants are looked up and constructed once per name. Runs in the knowledge base.
+ */
+final class FactArguments {
+
+    private final KnowledgeBase                           knowledgeBase;
+    private final Functor                                 functor;
+    private final List<Type>                              argTypes;
+    private final HashMap<Type, HashMap<String, Functor>> constantFunctors = new HashMap<>();
+    private final HashMap<Functor, Node>                  constants        = new HashMap<>();
+    private final Type                                    integerType;
+    private final Type                                    stringType;
+
+    FactArguments(KnowledgeBase knowledgeBase, Functor functor) {
+        this.knowledgeBase = knowledgeBase;
+        this.functor = functor;
+        this.argTypes = functor.argTypes();
+        this.integerType = literalType(NInteger.class);
+        this.stringType = literalType(NString.class);
+    }
+
+    /** The type of the literals of a class, null when the module that declares them is not imported. */
+    private Type literalType(Class<? extends Node> clss) {
+        for (Functor f : knowledgeBase.functors()) {
+            Constructor<? extends Node> constructor = f.constructor();
+            if (constructor != null && constructor.getDeclaringClass() == clss) {
+                return f.resultType();
+            }
+        }
+        return null;
+    }
+
+    Predicate fact(Object[] row, long rowNr) throws ParseException {
+        if (row.length != argTypes.size()) {
+            throw new IllegalArgumentException("row " + rowNr + ": " + functor.name() + " has " + argTypes.size()
+                    + " arguments, found " + row.length + " values");
+        }
+        Object[] args = new Object[row.length];
+        for (int i = 0; i < row.length; i++) {
+            args[i] = argument(argTypes.get(i), row[i], rowNr);
+        }
+        Node node = functor.construct(List.of(), args, knowledgeBase, knowledgeBase.parseContext());
+        if (node instanceof Predicate predicate && !predicate.isFact()) {
+            Functor literal = knowledgeBase.literal(functor);
+            if (literal != null) {
+                node = predicate.setFunctorOrType(literal);
+            }
+        }
+        if (!(node instanceof Predicate predicate) || !predicate.isFact()) {
+            throw new IllegalArgumentException(functor.name() + " is not a FactType functor");
+        }
+        if (!predicate.isFullyBound()) {
+            throw new IllegalArgumentException("row " + rowNr + ": fact " + predicate + " has variables");
+        }
+        return predicate;
+    }
+
+    private Object argument(Type type, Object value, long rowNr) throws ParseException {
+        if (value instanceof Node) {
+            return value;
+        }
+        if (value instanceof String text) {
+            Functor constant = constantFunctors.computeIfAbsent(type, this::constantFunctors).get(text.trim());
+            if (constant != null) {
+                Node node = constants.get(constant);
+                if (node == null) {
+                    node = constant.construct(List.of(), new Object[0], knowledgeBase, knowledgeBase.parseContext());
+                    constants.put(constant, node);
+                }
+                return node;
+            }
+        }
+        if (integerType != null && type.isAssignableFrom(integerType)) {
+            if (value instanceof Long || value instanceof Integer) {
+                return NInteger.of(((Number) value).longValue());
+            } else if (value instanceof BigInteger big) {
+                return NInteger.of(big);
+            } else if (value instanceof String text) {
+                try {
+                    return NInteger.of(new BigInteger(text.trim()));
+                } catch (NumberFormatException e) {
+                    // reported below
+                }
+            }
+        }
+        if (stringType != null && type.isAssignableFrom(stringType) && value != null) {
+            return NString.of(value.toString());
+        }
+        throw new IllegalArgumentException("row " + rowNr + ": " + value + " is not a " + type.name());
+    }
+
+    private HashMap<String, Functor> constantFunctors(Type type) {
+        HashMap<String, Functor> result = new HashMap<>();
+        for (Functor f : knowledgeBase.functors()) {
+            if (f.argTypes().isEmpty() && type.isAssignableFrom(f.resultType())) {
+                result.putIfAbsent(f.name(), f);
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,352 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.modelingvalue.collections.List;
+import org.modelingvalue.nelumbo.lang.Type;
+import org.modelingvalue.nelumbo.logic.Predicate;
+
+/**
+ * Columnar, off-heap storage of the facts of one FactType functor, see {@link Relation}. The rows are kept in
+ * immutable segments. Within a segment argument values are dictionary encoded: every distinct value gets an int id,
+ * and the rows are stored as one int column per argument position in direct (or, with {@code -DCOLUMNAR_DIR=dir},
+ * file mapped) memory. Per position the row numbers are also stored grouped by value id, so the rows with a given
+ * value at a position are one contiguous range. Only the dictionaries live on the heap; {@link Predicate} objects are
+ * created for the rows that are returned. Immutable.
+ * <p>
+ * An append only encodes the added facts, into a new segment. The last segments are merged while the one before is
+ * not larger, like the digits of a binary counter, so there are at most log2(rows) segments and every row is encoded
+ * again at most that often.
+ */
+final class FactColumns {
+
+    private static final String COLUMNAR_DIR = System.getProperty("COLUMNAR_DIR");
+
+    private final Predicate prototype;
+    private final Segment[] segments;
+    private final int       rows;
+
+    /**
+     * The given facts, which must all have the arity of the first one.
+     */
+    static FactColumns of(java.util.Collection<Predicate> facts) {
+        Predicate first = facts.iterator().next();
+        return new FactColumns((Predicate) first.setAstElements(List.of()), new Segment[0]).append(facts);
+    }
+
+    private FactColumns(Predicate prototype, Segment[] segments) {
+        this.prototype = prototype;
+        this.segments = segments;
+        long total = 0;
+        for (Segment segment : segments) {
+            total += segment.rows;
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalStateException("too many facts for one relation: " + total);
+        }
+        this.rows = (int) total;
+    }
+
+    /**
+     * The rows of this followed by the added facts, which must not be in this and must all have its arity.
+     */
+    FactColumns append(java.util.Collection<Predicate> added) {
+        int arity = arity();
+        java.util.List<Predicate> facts = new ArrayList<>(added);
+        for (Predicate fact : facts) {
+            if (fact.length() != arity) {
+                throw new IllegalArgumentException("fact " + fact + " does not have " + arity + " arguments");
+            }
+        }
+        Segment segment = new Segment(arity, facts.size(), (r, c) -> facts.get(r).get(c));
+        int n = segments.length;
+        while (n > 0 && segments[n - 1].rows <= segment.rows) {
+            segment = Segment.merge(segments[--n], segment);
+        }
+        Segment[] appended = Arrays.copyOf(segments, n + 1);
+        appended[n] = segment;
+        return new FactColumns(prototype, appended);
+    }
+
+    int size() {
+        return rows;
+    }
+
+    int arity() {
+        return prototype.length();
+    }
+
+    /**
+     * The number of rows with the given value at position c.
+     */
+    int count(int c, Object value) {
+        int count = 0;
+        for (Segment segment : segments) {
+            count += segment.count(c, value);
+        }
+        return count;
+    }
+
+    boolean contains(Predicate fact) {
+        if (fact.length() != arity()) {
+            return false;
+        }
+        for (Segment segment : segments) {
+            if (segment.contains(fact)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The rows matching the pattern, with the same semantics as {@link Relation#match(Predicate)}. Lazy: per segment
+     * the candidate rows are the smallest range of the bound positions, and a row is turned into a predicate when the
+     * stream reaches it.
+     */
+    Stream<Predicate> match(Predicate pattern) {
+        if (pattern.length() != arity()) {
+            return Stream.empty();
+        }
+        return Arrays.stream(segments).flatMap(s -> s.match(pattern).mapToObj(r -> s.row(prototype, r)));
+    }
+
+    /**
+     * All rows as predicates, lazily.
+     */
+    Stream<Predicate> rows() {
+        return Arrays.stream(segments).flatMap(s -> IntStream.range(0, s.rows).mapToObj(r -> s.row(prototype, r)));
+    }
+
+    private static IntBuffer allocate(int ints) {
+        long bytes = (long) ints * Integer.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("too many facts for one column: " + ints);
+        }
+        ByteBuffer buffer;
+        if (COLUMNAR_DIR == null) {
+            buffer = ByteBuffer.allocateDirect((int) bytes);
+        } else {
+            try {
+                Path file = Files.createTempFile(Path.of(COLUMNAR_DIR), "nelumbo", ".col");
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+                } finally {
+                    Files.deleteIfExists(file); // the mapping stays valid until the buffer is collected
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return buffer.order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    /**
+     * The value at position c of row r of the rows a segment is built from.
+     */
+    @FunctionalInterface
+    private interface Values {
+        Object get(int r, int c);
+    }
+
+    /**
+     * Immutable rows with a dictionary of their own.
+     */
+    private static final class Segment {
+
+        private final int                      arity;
+        private final int                      rows;
+        private final ArrayList<Object>        values = new ArrayList<>();
+        private final ArrayList<Type>          types  = new ArrayList<>();
+        private final HashMap<Object, Integer> ids    = new HashMap<>();
+        private final IntBuffer[]              columns;
+        private final IntBuffer[]              postings;
+        private final IntBuffer[]              starts;
+
+        private Segment(int arity, int rows, Values source) {
+            this.arity = arity;
+            this.rows = rows;
+            columns = new IntBuffer[arity];
+            for (int c = 0; c < arity; c++) {
+                columns[c] = allocate(rows);
+            }
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < arity; c++) {
+                    columns[c].put(r, encode(source.get(r, c)));
+                }
+            }
+            postings = new IntBuffer[arity];
+            starts = new IntBuffer[arity];
+            for (int c = 0; c < arity; c++) {
+                index(c);
+            }
+        }
+
+        /**
+         * The rows of a followed by those of b, decoded from their dictionaries without creating predicates.
+         */
+        private static Segment merge(Segment a, Segment b) {
+            return new Segment(a.arity, a.rows + b.rows, (r, c) -> r < a.rows ? a.value(r, c) : b.value(r - a.rows, c));
+        }
+
+        private int encode(Object value) {
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                ids.put(value, id);
+                values.add(value);
+                types.add(Node.typeOf(value));
+            }
+            return id;
+        }
+
+        private Object value(int r, int c) {
+            return values.get(columns[c].get(r));
+        }
+
+        /**
+         * Counting sort of the row numbers of column c by value id: starts[id]..starts[id + 1] is the range in postings
+         * of the rows with value id.
+         */
+        private void index(int c) {
+            IntBuffer column = columns[c];
+            int[] offsets = new int[values.size() + 1];
+            for (int r = 0; r < rows; r++) {
+                offsets[column.get(r) + 1]++;
+            }
+            for (int id = 0; id < values.size(); id++) {
+                offsets[id + 1] += offsets[id];
+            }
+            IntBuffer start = allocate(offsets.length);
+            start.put(offsets);
+            IntBuffer posting = allocate(rows);
+            for (int r = 0; r < rows; r++) {
+                posting.put(offsets[column.get(r)]++, r);
+            }
+            starts[c] = start;
+            postings[c] = posting;
+        }
+
+        private int count(int c, Object value) {
+            Integer id = c < arity ? ids.get(value) : null;
+            return id != null ? range(c, id) : 0;
+        }
+
+        private boolean contains(Predicate fact) {
+            if (arity == 0) {
+                return rows > 0;
+            }
+            int[] key = new int[arity];
+            int best = -1;
+            for (int c = 0; c < arity; c++) {
+                Integer id = ids.get(fact.get(c));
+                if (id == null) {
+                    return false;
+                }
+                key[c] = id;
+                if (best < 0 || range(c, id) < range(best, key[best])) {
+                    best = c;
+                }
+            }
+            IntBuffer posting = postings[best];
+            for (int p = starts[best].get(key[best]), end = starts[best].get(key[best] + 1); p < end; p++) {
+                if (matches(posting.get(p), key, null)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * The numbers of the rows matching a pattern of the arity of this segment.
+         */
+        private IntStream match(Predicate pattern) {
+            int[] key = new int[arity];
+            Type[] unbound = new Type[arity];
+            int best = -1;
+            for (int c = 0; c < arity; c++) {
+                Object value = pattern.get(c);
+                if (value instanceof Type type) {
+                    unbound[c] = type;
+                    key[c] = -1;
+                } else {
+                    Integer id = ids.get(value);
+                    if (id == null) {
+                        return IntStream.empty();
+                    }
+                    key[c] = id;
+                    if (best < 0 || range(c, id) < range(best, key[best])) {
+                        best = c;
+                    }
+                }
+            }
+            IntStream candidates;
+            if (best < 0) {
+                candidates = IntStream.range(0, rows);
+            } else {
+                IntBuffer posting = postings[best];
+                candidates = IntStream.range(starts[best].get(key[best]), starts[best].get(key[best] + 1))
+                        .map(posting::get);
+            }
+            return candidates.filter(r -> matches(r, key, unbound));
+        }
+
+        private int range(int c, int id) {
+            return starts[c].get(id + 1) - starts[c].get(id);
+        }
+
+        private boolean matches(int r, int[] key, Type[] unbound) {
+            for (int c = 0; c < arity; c++) {
+                int id = columns[c].get(r);
+                if (unbound != null && unbound[c] != null) {
+                    Type type = types.get(id);
+                    if (type == null || !unbound[c].isAssignableFrom(type)) {
+                        return false;
+                    }
+                } else if (id != key[c]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Predicate row(Predicate prototype, int r) {
+            Object[] args = new Object[arity];
+            for (int c = 0; c < arity; c++) {
+                args[c] = value(r, c);
+            }
+            return ((Predicate) prototype.setArgs(args)).intern();
+        }
+
+    }
+
+}
@@ -0,0 +1,96 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.modelingvalue.nelumbo.NelumboBudgetException.Resource;
+
+/**
+ * Accounts the resources used by inference against a {@link Budget}. Shared by a knowledge base and its children, so
+ * concurrent queries of one request draw from the same budget.
+ */
+public final class Governor {
+
+    private final Budget     budget;
+    private final AtomicLong ruleApplications = new AtomicLong();
+    private final AtomicLong derivedFacts     = new AtomicLong();
+    private final AtomicLong bytes            = new AtomicLong();
+
+    public Governor(Budget budget) {
+        this.budget = budget;
+    }
+
+    public Budget budget() {
+        return budget;
+    }
+
+    public void ruleApplied(int nrOfFacts) {
+        charge(ruleApplications, 1, budget.ruleApplications(), Resource.RULE_APPLICATIONS);
+        if (nrOfFacts > 0) {
+            charge(derivedFacts, nrOfFacts, budget.derivedFacts(), Resource.DERIVED_FACTS);
+        }
+    }
+
+    public void retained(long nrOfBytes) {
+        charge(bytes, nrOfBytes, budget.bytes(), Resource.BYTES);
+    }
+
+    public void released(long nrOfBytes) {
+        bytes.addAndGet(-nrOfBytes);
+    }
+
+    /**
+     * Throws if any budget is exhausted, also when it was exhausted by another thread.
+     */
+    public void check() {
+        check(ruleApplications.get(), budget.ruleApplications(), Resource.RULE_APPLICATIONS);
+        check(derivedFacts.get(), budget.derivedFacts(), Resource.DERIVED_FACTS);
+        check(bytes.get(), budget.bytes(), Resource.BYTES);
+    }
+
+    private static void charge(AtomicLong used, long amount, long limit, Resource resource) {
+        if (limit > 0) {
+            check(used.addAndGet(amount), limit, resource);
+        }
+    }
+
+    private static void check(long used, long limit, Resource resource) {
+        if (limit > 0 && used > limit) {
+            throw new NelumboBudgetException(resource, limit);
+        }
+    }
+
+    public long ruleApplications() {
+        return ruleApplications.get();
+    }
+
+    public long derivedFacts() {
+        return derivedFacts.get();
+    }
+
+    public long bytes() {
+        return bytes.get();
+    }
+
+    @Override
+    public String toString() {
+        return "Governor[ruleApplications=" + ruleApplications() + ", derivedFacts=" + derivedFacts() + ", bytes="
+                + bytes() + ", budget=" + budget + "]";
+    }
+
+}
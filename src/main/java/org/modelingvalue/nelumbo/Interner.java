@@ -0,0 +1,134 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional weak intern table for fully bound terms (enabled with INTERN_NELUMBO). Structurally equal nodes share one
+ * instance, so equality of interned terms is an identity check. A node is only replaced by an interned node with the
+ * same declaration and functor (or type) and without AST elements, because those are not part of equality but are used
+ * by binding and by the editor. The table is a concurrent map of weak references to the interned nodes; the entries of
+ * collected nodes are purged through a reference queue.
+ */
+public final class Interner {
+
+    public static final boolean INTERN_NELUMBO = Boolean.getBoolean("INTERN_NELUMBO");
+
+    private static final ConcurrentHashMap<Object, Ref> TABLE  = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Node>           QUEUE  = new ReferenceQueue<>();
+    private static final LongAdder                      HITS   = new LongAdder();
+    private static final LongAdder                      MISSES = new LongAdder();
+
+    private Interner() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <N extends Node> N intern(N node) {
+        if (!node.astElements().isEmpty()) {
+            return node;
+        }
+        purge();
+        Ref ref = TABLE.get(new Probe(node));
+        Node interned = ref != null ? ref.get() : null;
+        if (interned == null) {
+            Ref created = new Ref(node);
+            ref = TABLE.putIfAbsent(created, created);
+            interned = ref != null ? ref.get() : null;
+            if (interned == null) {
+                MISSES.increment();
+                return node;
+            }
+        }
+        if (interned.getClass() == node.getClass() && interned.declaration() == node.declaration()
+                && interned.functorOrType() == node.functorOrType()) {
+            HITS.increment();
+            return (N) interned;
+        } else {
+            return node;
+        }
+    }
+
+    private static void purge() {
+        for (Reference<? extends Node> ref = QUEUE.poll(); ref != null; ref = QUEUE.poll()) {
+            TABLE.remove(ref);
+        }
+    }
+
+    public static int size() {
+        purge();
+        return TABLE.size();
+    }
+
+    public static long hits() {
+        return HITS.sum();
+    }
+
+    public static long misses() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Key and value of the table: equal to the references of equal nodes while its node is alive, and after that
+     * only to itself, so the purge removes exactly this entry.
+     */
+    private static final class Ref extends WeakReference<Node> {
+        private final int hash;
+
+        private Ref(Node node) {
+            super(node, QUEUE);
+            this.hash = node.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            } else if (obj instanceof Ref ref && ref.hash == hash) {
+                Node node = get();
+                return node != null && node.equals(ref.get());
+            } else {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Looks up the reference of a node that is equal to the given one, without creating a reference.
+     */
+    private record Probe(Node node) {
+        @Override
+        public int hashCode() {
+            return node.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Ref ref && node.equals(ref.get());
+        }
+    }
+
+}
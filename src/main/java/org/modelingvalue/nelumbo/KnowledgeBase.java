@@ -22,16 +22,21 @@ import static org.modelingvalue.nelumbo.syntax.TokenType.*;
 
 import java.io.PrintStream;
 import java.io.Serial;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
 
+import org.modelingvalue.collections.ContainingCollection;
 import org.modelingvalue.collections.Entry;
 import org.modelingvalue.collections.List;
 import org.modelingvalue.collections.Map;
-import org.modelingvalue.collections.QualifiedSet;
 import org.modelingvalue.collections.Set;
 import org.modelingvalue.collections.mutable.MutableMap;
-import org.modelingvalue.collections.struct.impl.Struct2Impl;
 import org.modelingvalue.collections.util.Context;
 import org.modelingvalue.collections.util.ContextPool;
 import org.modelingvalue.collections.util.ContextThread;
@@ -45,6 +50,7 @@ import org.modelingvalue.nelumbo.lang.Type;
 import org.modelingvalue.nelumbo.lang.Variable;
 import org.modelingvalue.nelumbo.logic.InferContext;
 import org.modelingvalue.nelumbo.logic.InferResult;
+import org.modelingvalue.nelumbo.logic.NIs;
 import org.modelingvalue.nelumbo.logic.Predicate;
 import org.modelingvalue.nelumbo.logic.Rule;
 import org.modelingvalue.nelumbo.patterns.AlternationPattern;
@@ -69,40 +75,10 @@ public final class KnowledgeBase implements ParseExceptionHandler {
     //
     public static final Context<KnowledgeBase> CURRENT = Context.of();
     //
-    private static final ContextPool                        POOL                = ContextThread.createPool()
-            .setWorkerThreadName("nelumbo");
-    private static final QualifiedSet<Predicate, Inference> EMPTY_MEMOIZ        = QualifiedSet.of(Inference::premise);
-    private static final int                                MAX_LOGIC_MEMOIZ    = Integer.getInteger("MAX_LOGIC_MEMOIZ",
-            10000);
-    private static final int                                MAX_LOGIC_MEMOIZ_D4 = KnowledgeBase.MAX_LOGIC_MEMOIZ / 4;
-    private static final int                                INITIAL_USAGE_COUNT = Integer
-            .getInteger("INITIAL_USAGE_COUNT", 4);
+    private static final ContextPool POOL = ContextThread.createPool().setWorkerThreadName("nelumbo");
     //
     public static final KnowledgeBase BASE = new KnowledgeBase(null).initBase();
 
-    private static class Inference extends Struct2Impl<Predicate, InferResult> {
-        @Serial
-        private static final long serialVersionUID = 1531759272582548244L;
-
-        public int count = INITIAL_USAGE_COUNT;
-
-        public Inference(Predicate predicate, InferResult result) {
-            super(predicate, result);
-        }
-
-        public Predicate premise() {
-            return get0();
-        }
-
-        public InferResult result() {
-            return get1();
-        }
-
-        protected boolean keep() {
-            return count-- > 0;
-        }
-    }
-
     private static final class LogicTask extends ForkJoinTask<KnowledgeBase> {
         @Serial
         private static final long serialVersionUID = -1375078574164947441L;
@@ -127,7 +103,6 @@ public final class KnowledgeBase implements ParseExceptionHandler {
         @Override
         protected boolean exec() {
             CURRENT.run(knowledgebase, runnable);
-            knowledgebase.stopped = true;
             return true;
         }
 
@@ -137,6 +112,23 @@ public final class KnowledgeBase implements ParseExceptionHandler {
         return POOL.invoke(new LogicTask(runnable, this));
     }
 
+    /**
+     * Runs the tasks as ForkJoin subtasks on the knowledge base pool, with this knowledge base as {@link #CURRENT},
+     * and waits for all of them.
+     */
+    public void parallel(Runnable... tasks) {
+        ForkJoinTask<?>[] subtasks = new ForkJoinTask<?>[tasks.length];
+        for (int i = 0; i < tasks.length; i++) {
+            Runnable task = tasks[i];
+            subtasks[i] = ForkJoinTask.adapt(() -> CURRENT.run(this, task));
+        }
+        if (ForkJoinTask.getPool() == POOL) {
+            ForkJoinTask.invokeAll(subtasks);
+        } else {
+            POOL.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(subtasks)));
+        }
+    }
+
     public Functor addType(Type type, ParseContext ctx) throws ParseException {
         Variable var = type.variable();
         Pattern pattern;
@@ -289,7 +281,7 @@ public final class KnowledgeBase implements ParseExceptionHandler {
 
     private final AtomicReference<Set<Type>>                                types             = new AtomicReference<>();
     private final AtomicReference<Set<Functor>>                             functors          = new AtomicReference<>();
-    private final AtomicReference<Map<Predicate, InferResult>>              facts             = new AtomicReference<>();
+    private final AtomicReference<Map<Functor, Relation>>                   relations         = new AtomicReference<>();
     private final AtomicReference<Set<Rule>>                                rules             = new AtomicReference<>();
     private final AtomicReference<Set<Transform>>                           transforms        = new AtomicReference<>();
     private final AtomicReference<Map<Type, Set<Pair<Functor, Transform>>>> literalTransforms = new AtomicReference<>();
@@ -305,18 +297,35 @@ public final class KnowledgeBase implements ParseExceptionHandler {
     private final AtomicReference<MatchState<Rule>>      ruleSignatures      = new AtomicReference<>();
     private final AtomicReference<MatchState<Transform>> transformSignatures = new AtomicReference<>();
     //
-    private final AtomicReference<QualifiedSet<Predicate, Inference>[]> memoization = new AtomicReference<>();
-    private final InferContext                                          context;
-    private final ParseContext                                          parseContext;
-    private final KnowledgeBase                                         init;
+    private final AtomicReference<Map<Functor, Set<Functor>>> dependents = new AtomicReference<>();
+    //
+    private final AtomicReference<MemoTable> memoization = new AtomicReference<>();
+    private final InferContext               context;
+    private final ParseContext               parseContext;
+    private final KnowledgeBase              init;
 
-    private boolean               stopped;
     private ParseExceptionHandler exceptionHandler;
     private long                  deadlineNanos;
+    private int                   solutionLimit;
+    private Governor              governor;
+    private Profiler              profiler;
+    private volatile boolean      sharedMemoization;
+    // serializes the changes of the facts with the invalidation of the memoization that goes with them, and keeps
+    // the results of derived knowledge bases from being shared meanwhile (see shareMemoization)
+    private final ReentrantReadWriteLock factsLock = new ReentrantReadWriteLock();
+    private volatile long                factsVersion;
+    private volatile long                initFactsVersion;
+    // the union of the relations, with the relations it was taken from
+    private volatile Pair<Map<Functor, Relation>, Set<Predicate>> facts;
+    // per declaration: the number of inferences and the number of facts they inferred (see fanOut)
+    private final ConcurrentHashMap<Functor, LongAdder[]> fanOuts = new ConcurrentHashMap<>();
 
     public KnowledgeBase(KnowledgeBase init) {
         this.init = init;
         this.deadlineNanos = init != null ? init.deadlineNanos : 0;
+        this.solutionLimit = init != null ? init.solutionLimit : -1;
+        this.governor = init != null ? init.governor : null;
+        this.profiler = init != null ? init.profiler : null;
         context = InferContext.of(KnowledgeBase.this, List.of(), Map.of(), false, false, TRACE_NELUMBO, null);
         parseContext = ParseContext.of(Type.DEFAULT_GROUP, prePatterns, postPatterns, hiddenVariables);
         init();
@@ -336,11 +345,94 @@ public final class KnowledgeBase implements ParseExceptionHandler {
         return deadlineNanos != 0 && System.nanoTime() - deadlineNanos >= 0;
     }
 
+    /**
+     * Sets the {@link Budget} for inference run in this knowledge base and the child knowledge bases it spawns from
+     * now on. They share one {@link Governor}; once a limit is exceeded, inference throws
+     * {@link NelumboBudgetException}.
+     */
+    public void setBudget(Budget budget) {
+        this.governor = budget == null || budget.isUnlimited() ? null : new Governor(budget);
+        memoization.get().setGovernor(governor);
+    }
+
+    public Governor governor() {
+        return governor;
+    }
+
+    /**
+     * Profiles inference run in this knowledge base and the child knowledge bases it spawns from now on, null stops
+     * profiling.
+     */
+    public void setProfiler(Profiler profiler) {
+        this.profiler = profiler;
+    }
+
+    public Profiler profiler() {
+        return profiler;
+    }
+
+    /**
+     * Makes the memo table of this knowledge base, a loaded model, the shared tier of the knowledge bases derived from
+     * it (a request or an editor evaluation each), with the given byte budget of its own. Their results are written
+     * through to it when they depend only on functors and types of this knowledge base that the derived ones did not
+     * change (no rules or facts added for them, directly or through a functor they depend on), so the next derived
+     * knowledge base starts with them. Not for {@link #BASE}: every knowledge base of the JVM derives from it, so the
+     * results of unrelated models would compete for its budget.
+     */
+    public void shareMemoization(long budget) {
+        if (this == BASE) {
+            throw new IllegalArgumentException("The shared memo tier belongs to a model, not to the base knowledge base");
+        }
+        memoization.get().setBudget(budget);
+        sharedMemoization = true;
+    }
+
+    public boolean sharedMemoization() {
+        return sharedMemoization;
+    }
+
+    /**
+     * Called at the loop heads of the inference engine: throws {@link NelumboTimeoutException} past the deadline and
+     * {@link NelumboBudgetException} when the budget is exhausted.
+     */
+    public void checkLimits() {
+        if (isPastDeadline()) {
+            NelumboEvents.timeout(System.nanoTime() - deadlineNanos);
+            throw new NelumboTimeoutException();
+        }
+        Governor g = governor;
+        if (g != null) {
+            g.check();
+        }
+    }
+
+    public void ruleApplied(int nrOfFacts) {
+        Governor g = governor;
+        if (g != null) {
+            g.ruleApplied(nrOfFacts);
+        }
+    }
+
+    /**
+     * Limits the number of solutions that queries (without an expected result) evaluated in this knowledge base
+     * enumerate. A query stops inferring after one solution more than the limit, so a truncated result is detectable,
+     * and its result is then incomplete. -1 (the default) enumerates all solutions.
+     */
+    public void setSolutionLimit(int solutionLimit) {
+        this.solutionLimit = solutionLimit;
+    }
+
+    public int solutionLimit() {
+        return solutionLimit;
+    }
+
     @SuppressWarnings("unchecked")
     public void init() {
+        initFactsVersion = init != null ? init.factsVersion : 0; // before the facts are taken over
+        factsVersion++;
         types.set(init != null ? init.types.get() : Set.of());
         functors.set(init != null ? init.functors.get() : Set.of());
-        facts.set(init != null ? init.facts.get() : Map.of());
+        relations.set(init != null ? init.relations.get() : Map.of());
         rules.set(init != null ? init.rules.get() : Set.of());
         transforms.set(init != null ? init.transforms.get() : Set.of());
         literalTransforms.set(init != null ? init.literalTransforms.get() : Map.of());
@@ -351,14 +443,128 @@ public final class KnowledgeBase implements ParseExceptionHandler {
         ruleSignatures.set(init != null ? init.ruleSignatures.get() : MatchState.EMPTY);
         transformSignatures.set(init != null ? init.transformSignatures.get() : MatchState.EMPTY);
         imported.set(init != null ? init.imported.get() : Set.of());
-        resetMemoization();
+        dependents.set(init != null ? init.dependents.get() : Map.of());
+        MemoTable previous = memoization.get(), parent = init != null ? init.memoization.get() : null;
+        MemoTable table = sharedMemoization ? new MemoTable(parent, previous.budget()) : new MemoTable(parent);
+        table.setGovernor(governor);
+        memoization.set(table);
+        fanOuts.clear();
+    }
+
+    /**
+     * The state of this knowledge base: everything parsing and evaluation add to it, except the memoized results.
+     * All parts are persistent collections, so taking a snapshot is cheap.
+     */
+    public record Snapshot(Set<Type> types,
+                           Set<Functor> functors,
+                           Map<Functor, Relation> relations,
+                           Set<Rule> rules,
+                           Set<Transform> transforms,
+                           Map<Type, Set<Pair<Functor, Transform>>> literalTransforms,
+                           Map<String, Map<Type, ParseState>> prePatterns,
+                           Map<String, Map<Type, ParseState>> postPatterns,
+                           Map<String, Map<Type, Variable>> hiddenVariables,
+                           Map<Functor, Functor> literalFunctors,
+                           Set<String> imported,
+                           MatchState<Rule> ruleSignatures,
+                           MatchState<Transform> transformSignatures,
+                           Map<Functor, Set<Functor>> dependents) {
+
+        /**
+         * Whether queries infer the same in both states: same rules, facts, transforms and literals. Types, functors
+         * and patterns are left out; they only matter to the nodes that parsing makes of them. Relations are compared
+         * by identity first, then by their size and content hash, and only then by their facts.
+         */
+        public boolean infersLike(Snapshot other) {
+            return rules.equals(other.rules) && (relations == other.relations || relations.equals(other.relations))
+                    && transforms.equals(other.transforms) && literalTransforms.equals(other.literalTransforms)
+                    && literalFunctors.equals(other.literalFunctors);
+        }
+
+        /** These declarations with the rules and facts of {@code evaluated}, as evaluation added them. */
+        public Snapshot evaluated(Snapshot evaluated) {
+            return new Snapshot(types, functors, evaluated.relations, evaluated.rules, transforms, literalTransforms,
+                    prePatterns, postPatterns, hiddenVariables, literalFunctors, imported, evaluated.ruleSignatures,
+                    transformSignatures, evaluated.dependents);
+        }
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(types.get(), functors.get(), relations.get(), rules.get(), transforms.get(),
+                literalTransforms.get(), prePatterns.get(), postPatterns.get(), hiddenVariables.get(),
+                literalFunctors.get(), imported.get(), ruleSignatures.get(), transformSignatures.get(),
+                dependents.get());
+    }
+
+    /**
+     * Sets the state back to the {@code snapshot}. Memoized results that depend on rules or facts that differ
+     * between the current state and the snapshot are invalidated; the others stay valid.
+     */
+    public void restore(Snapshot snapshot) {
+        Set<Functor> changed = Set.of();
+        Set<Rule> current = rules.get();
+        for (Rule rule : current) {
+            if (!snapshot.rules().contains(rule)) {
+                changed = changed.add(dependencyKey(rule));
+            }
+        }
+        for (Rule rule : snapshot.rules()) {
+            if (!current.contains(rule)) {
+                changed = changed.add(dependencyKey(rule));
+            }
+        }
+        Map<Functor, Relation> currentRelations = relations.get();
+        boolean factsChanged = false;
+        for (Entry<Functor, Relation> e : currentRelations) {
+            if (snapshot.relations().get(e.getKey()) != e.getValue()) {
+                changed = changed.add(e.getKey());
+                factsChanged = true;
+            }
+        }
+        for (Entry<Functor, Relation> e : snapshot.relations()) {
+            if (currentRelations.get(e.getKey()) != e.getValue()) {
+                changed = changed.add(e.getKey());
+                factsChanged = true;
+            }
+        }
+        types.set(snapshot.types());
+        functors.set(snapshot.functors());
+        relations.set(snapshot.relations());
+        rules.set(snapshot.rules());
+        transforms.set(snapshot.transforms());
+        literalTransforms.set(snapshot.literalTransforms());
+        prePatterns.set(m -> snapshot.prePatterns());
+        postPatterns.set(m -> snapshot.postPatterns());
+        hiddenVariables.set(m -> snapshot.hiddenVariables());
+        literalFunctors.set(snapshot.literalFunctors());
+        imported.set(snapshot.imported());
+        ruleSignatures.set(snapshot.ruleSignatures());
+        transformSignatures.set(snapshot.transformSignatures());
+        dependents.set(snapshot.dependents());
+        invalidate(changed);
+        if (factsChanged) {
+            factsVersion++;
+        }
     }
 
     public void merge(KnowledgeBase kb, AstElement element) throws ParseException {
         try {
+            Set<Functor> changed = Set.of();
+            Set<Rule> known = rules.get();
+            for (Rule rule : kb.rules.get()) {
+                if (!known.contains(rule)) {
+                    changed = changed.add(dependencyKey(rule));
+                }
+            }
+            Map<Functor, Relation> knownRelations = relations.get();
+            for (Entry<Functor, Relation> e : kb.relations.get()) {
+                if (knownRelations.get(e.getKey()) != e.getValue()) {
+                    changed = changed.add(e.getKey());
+                }
+            }
             types.updateAndGet(s -> s.addAll(kb.types.get()));
             functors.updateAndGet(s -> s.addAll(kb.functors.get()));
-            facts.updateAndGet(s -> s.addAll(kb.facts.get()));
+            relations.updateAndGet(m -> merge(m, kb.relations.get()));
             rules.updateAndGet(s -> s.addAll(kb.rules.get()));
             transforms.updateAndGet(s -> s.addAll(kb.transforms.get()));
             literalTransforms.updateAndGet(s -> s.addAll(kb.literalTransforms.get()));
@@ -369,16 +575,61 @@ public final class KnowledgeBase implements ParseExceptionHandler {
             ruleSignatures.updateAndGet(s -> kb.ruleSignatures.get().merge(s));
             transformSignatures.updateAndGet(s -> kb.transformSignatures.get().merge(s));
             imported.updateAndGet(s -> s.addAll(kb.imported.get()));
-            resetMemoization();
+            dependents.updateAndGet(m -> mergeSets(m, kb.dependents.get()));
+            invalidate(changed);
         } catch (Exception exc) {
             addException(new ParseException(exc.getMessage(), element));
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private void resetMemoization() {
-        memoization.set(init != null ? init.memoization.get()
-                : new QualifiedSet[] { EMPTY_MEMOIZ, EMPTY_MEMOIZ, EMPTY_MEMOIZ });
+    private static Map<Functor, Relation> merge(Map<Functor, Relation> map, Map<Functor, Relation> other) {
+        for (Entry<Functor, Relation> e : other) {
+            map = map.put(e.getKey(), map.getOrDefault(e.getKey(), Relation.EMPTY).addAll(e.getValue()));
+        }
+        return map;
+    }
+
+    private static Map<Functor, Set<Functor>> mergeSets(Map<Functor, Set<Functor>> map,
+            Map<Functor, Set<Functor>> other) {
+        for (Entry<Functor, Set<Functor>> e : other) {
+            map = map.put(e.getKey(), map.getOrDefault(e.getKey(), Set.of()).addAll(e.getValue()));
+        }
+        return map;
+    }
+
+    /**
+     * The functor under which the memoized results of a rule are invalidated: the declaration of the functor of the
+     * left hand side of an {@code =} consequence (c in c(a)=b), otherwise that of the functor of the consequence.
+     */
+    private static Functor dependencyKey(Rule rule) {
+        Predicate consequence = rule.consequence();
+        Functor left = consequence instanceof NIs nis ? nis.left().functor() : null;
+        return (left != null ? left : consequence.functor()).declaration();
+    }
+
+    /**
+     * Invalidates the memoized results that (transitively, through the conditions of rules) depend on the changed
+     * functors. Unrelated results survive. Functors are compared by their declaration, like the relations are keyed, so
+     * bound copies of a functor are invalidated with it.
+     */
+    private void invalidate(Set<Functor> changed) {
+        MemoTable table = memoization.get();
+        if (changed.isEmpty() || (table.size() == 0 && table.parent() == null)) {
+            return;
+        }
+        Map<Functor, Set<Functor>> deps = dependents.get();
+        Set<Functor> affected = Set.of(), todo = changed.map(Functor::declaration).asSet();
+        while (!todo.isEmpty()) {
+            Set<Functor> next = Set.of();
+            for (Functor functor : todo) {
+                if (!affected.contains(functor)) {
+                    affected = affected.add(functor);
+                    next = next.addAll(deps.getOrDefault(functor, Set.of()));
+                }
+            }
+            todo = next;
+        }
+        table.invalidate(affected);
     }
 
     public void setExceptionHandler(ParseExceptionHandler exceptionHandler) {
@@ -408,14 +659,17 @@ public final class KnowledgeBase implements ParseExceptionHandler {
     }
 
     public InferResult getMemoiz(Predicate predicate) {
-        for (QualifiedSet<Predicate, Inference> m : memoization.get()) {
-            Inference memoiz = m.get(predicate);
-            if (memoiz != null) {
-                memoiz.count++;
-                return memoiz.result().cast(predicate);
-            }
+        InferResult result = memoization.get().get(predicate);
+        Profiler p = profiler;
+        if (p != null) {
+            p.memo(predicate.functor(), result != null);
         }
-        return null;
+        NelumboEvents.memo(predicate, result != null);
+        return result != null ? result.cast(predicate) : null;
+    }
+
+    public MemoTable memoTable() {
+        return memoization.get();
     }
 
     public Set<Type> types() {
@@ -430,8 +684,62 @@ public final class KnowledgeBase implements ParseExceptionHandler {
         return rules.get();
     }
 
-    public Map<Predicate, InferResult> facts() {
-        return facts.get();
+    /**
+     * All facts, the union of the relations. It is cached until the relations change.
+     */
+    public Set<Predicate> facts() {
+        Map<Functor, Relation> current = relations.get();
+        Pair<Map<Functor, Relation>, Set<Predicate>> cached = facts;
+        if (cached == null || cached.a() != current) {
+            Set<Predicate> union = Set.of();
+            for (Entry<Functor, Relation> e : current) {
+                union = union.addAll(e.getValue().facts());
+            }
+            cached = Pair.of(current, union);
+            facts = cached;
+        }
+        return cached.b();
+    }
+
+    /**
+     * Records the number of facts of an inference of a predicate with the given functor. Only used for planning.
+     */
+    public void fanOut(Functor functor, int nrOfFacts) {
+        LongAdder[] counts = fanOuts.computeIfAbsent(functor.declaration(),
+                f -> new LongAdder[]{new LongAdder(), new LongAdder()});
+        counts[0].increment();
+        counts[1].add(nrOfFacts);
+    }
+
+    /**
+     * The average number of facts per inference of predicates with the given functor, as recorded in this knowledge
+     * base or else in the one it was initialized from, or -1 if nothing was recorded yet. Knowledge bases derived from
+     * the same one do not see each others statistics.
+     */
+    public double fanOut(Functor functor) {
+        Functor key = functor.declaration();
+        for (KnowledgeBase kb = this; kb != null; kb = kb.init) {
+            LongAdder[] counts = kb.fanOuts.get(key);
+            if (counts != null) {
+                long n = counts[0].sum();
+                if (n > 0) {
+                    return (double) counts[1].sum() / n;
+                }
+            }
+        }
+        return -1.0;
+    }
+
+    public Relation relation(Functor functor) {
+        return relations.get().getOrDefault(relationKey(functor), Relation.EMPTY);
+    }
+
+    /**
+     * The key of the relation of the facts of a functor: its declaration, the same as {@link Node#equals} compares
+     * predicates by, so facts and patterns with a bound copy of a functor find the same relation.
+     */
+    private static Functor relationKey(Functor functor) {
+        return functor.declaration();
     }
 
     public Set<Transform> transforms() {
@@ -439,55 +747,103 @@ public final class KnowledgeBase implements ParseExceptionHandler {
     }
 
     public void memoization(Predicate predicate, InferResult result) {
-        boolean known = result.cycles().isEmpty(); // && result.isComplete();
-        QualifiedSet<Predicate, Inference>[] mem = memoization.updateAndGet(array -> {
-            array = array.clone();
-            if (known) {
-                array[0] = array[0].put(new Inference(predicate, result));
+        MemoTable table = memoization.get();
+        if (result.cycles().isEmpty()) { // && result.isComplete();
+            table.put(predicate, result);
+        }
+        for (Predicate fact : result.facts()) {
+            table.put(fact, fact.factCC());
+        }
+        for (Predicate falsehood : result.falsehoods()) {
+            table.put(falsehood, falsehood.falsehoodCC());
+        }
+        for (KnowledgeBase kb = init; kb != null; kb = kb.init) {
+            if (kb.sharedMemoization) {
+                kb.shareMemoization(this, predicate, result);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Writes a result of a derived knowledge base through to the memo table of this one. Not when the facts of this
+     * knowledge base (or of one in between) changed since the derived one was created: then the result may have been
+     * inferred from facts that are gone.
+     */
+    private void shareMemoization(KnowledgeBase from, Predicate predicate, InferResult result) {
+        MemoTable table = memoization.get();
+        Set<Functor> blocked = from.memoization.get().blockedBelow(table);
+        if (blocked == null || !result.cycles().isEmpty() || !shareable(predicate, blocked)) {
+            return;
+        }
+        for (Predicate fact : result.facts()) {
+            if (!shareable(fact, blocked)) {
+                return;
+            }
+        }
+        for (Predicate falsehood : result.falsehoods()) {
+            if (!shareable(falsehood, blocked)) {
+                return;
             }
+        }
+        factsLock.readLock().lock();
+        try {
+            for (KnowledgeBase kb = from; kb != this; kb = kb.init) {
+                if (kb.initFactsVersion != kb.init.factsVersion) {
+                    return;
+                }
+            }
+            table.put(predicate, result);
             for (Predicate fact : result.facts()) {
-                array[0] = array[0].put(new Inference(fact, fact.factCC()));
+                table.put(fact, fact.factCC());
             }
             for (Predicate falsehood : result.falsehoods()) {
-                array[0] = array[0].put(new Inference(falsehood, falsehood.falsehoodCC()));
+                table.put(falsehood, falsehood.falsehoodCC());
             }
-            if (array[0].size() >= MAX_LOGIC_MEMOIZ_D4) {
-                array[2] = array[2].putAll(array[1]);
-                array[1] = array[0];
-                array[0] = EMPTY_MEMOIZ;
-            }
-            return array;
-        });
-        if (mem[2].size() > MAX_LOGIC_MEMOIZ) {
-            POOL.execute(this::cleanup);
+        } finally {
+            factsLock.readLock().unlock();
         }
     }
 
-    private void cleanup() {
-        QualifiedSet<Predicate, Inference>[] mem = memoization.get();
-        while (mem[2].size() > MAX_LOGIC_MEMOIZ) {
-            for (int i = 0; i < mem[2].size(); i++) {
-                if (stopped) {
-                    return;
+    private boolean shareable(Object value, Set<Functor> blocked) {
+        if (value instanceof Type type) {
+            return types().contains(type);
+        } else if (value instanceof Node node) {
+            Functor functor = node.functor();
+            if (functor != null && (blocked.contains(functor.declaration())
+                    || !functors().contains(functor.declaration()))) {
+                return false;
+            }
+            for (int i = 0; i < node.length(); i++) {
+                if (!shareable(node.get(i), blocked)) {
+                    return false;
                 }
-                Inference m = mem[2].get(i);
-                if (!m.keep()) {
-                    mem = memoization.updateAndGet(array -> {
-                        array = array.clone();
-                        array[2] = array[2].removeKey(m.premise());
-                        return array;
-                    });
-                    i--;
+            }
+            return true;
+        } else if (value instanceof ContainingCollection<?> collection) {
+            for (Object element : collection) {
+                if (!shareable(element, blocked)) {
+                    return false;
                 }
             }
+            return true;
         }
+        return value == null || value instanceof String || value instanceof Number || value instanceof Boolean;
     }
 
     public Rule addRule(Rule rule) {
         rules.updateAndGet(s -> s.add(rule));
         MatchState<Rule> state = rule.consequence().state(new MatchState<>(rule));
         ruleSignatures.updateAndGet(state::merge);
-        resetMemoization();
+        Functor key = dependencyKey(rule);
+        dependents.updateAndGet(m -> {
+            for (Functor functor : rule.condition().functors()) {
+                Functor declaration = functor.declaration();
+                m = m.put(declaration, m.getOrDefault(declaration, Set.of()).add(key));
+            }
+            return m;
+        });
+        invalidate(Set.of(key));
         return rule;
     }
 
@@ -514,50 +870,92 @@ public final class KnowledgeBase implements ParseExceptionHandler {
     }
 
     public void addFact(Predicate fact) {
-        Functor functor = fact.functor();
-        List<Type> args = functor.argTypes();
-        facts.updateAndGet(map -> {
-            map = map.put(fact, fact.factCC());
-            for (int i = 0; i < fact.length(); i++) {
-                map = addFact(map, fact, fact.setType(i, fact.getType(i)), i, args.get(i));
-            }
-            return map;
-        });
-        resetMemoization();
-    }
-
-    private static Map<Predicate, InferResult> addFact(Map<Predicate, InferResult> map, Predicate fact,
-            Predicate predicate, int i, Type cls) {
-        Type type = predicate.getType(i);
-        if (cls.isAssignableFrom(type)) {
-            InferResult pre = map.get(predicate);
-            map = map.put(predicate,
-                    InferResult.factsCI(predicate, pre != null ? pre.facts().add(fact) : fact.singleton()));
-            if (!cls.equals(type)) {
-                for (Type gen : generalizations(type, cls)) {
-                    map = addFact(map, fact, predicate.setType(i, gen), i, cls);
+        Predicate interned = Interner.INTERN_NELUMBO && fact.isFullyBound() ? fact.intern() : fact;
+        Functor functor = interned.functor(), key = relationKey(functor);
+        factsLock.writeLock().lock();
+        try {
+            Relation empty = interned.isFact() ? Relation.EMPTY_FACT_TYPE : Relation.EMPTY;
+            relations.updateAndGet(m -> m.put(key, m.getOrDefault(key, empty).add(interned)));
+            invalidate(Set.of(key));
+            factsVersion++;
+        } finally {
+            factsLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The FactType functor with the given name (pc for {@code pc(<Person>,<Person>)}), or null if there is none.
+     */
+    public Functor factFunctor(String name) {
+        return CURRENT.get(this, () -> { // the supers of the result types are resolved in this knowledge base
+            for (Functor functor : functors()) {
+                String n = functor.name();
+                if (Type.FACT_TYPE.isAssignableFrom(functor.resultType())
+                        && (n.equals(name) || n.startsWith(name + "("))) {
+                    return functor;
                 }
             }
-        }
-        return map;
+            return null;
+        });
     }
 
-    private static Set<Type> generalizations(Type type, Type top) {
-        Set<Type> result = Set.of();
-        for (Type g : type.supers()) {
-            if (top.isAssignableFrom(g)) {
-                result = result.add(g);
+    /**
+     * Adds a batch of facts of a FactType functor without going through source text. Each row holds the argument
+     * values (see {@link FactArguments} for the accepted values). All rows are converted first, so a bad row adds
+     * nothing; then the relation and its indexes are built in one pass and the memoization is invalidated once. Loads
+     * of concurrent threads are applied one at a time.
+     *
+     * @return the number of facts that were not known yet
+     */
+    public int loadFacts(Functor functor, Stream<Object[]> rows) {
+        java.util.List<Predicate> facts = new ArrayList<>();
+        CURRENT.run(this, () -> {
+            FactArguments arguments = new FactArguments(this, functor);
+            long rowNr = 0;
+            try {
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    Predicate fact = arguments.fact(row, ++rowNr);
+                    facts.add(Interner.INTERN_NELUMBO ? fact.intern() : fact);
+                }
+            } catch (ParseException e) {
+                throw new IllegalArgumentException("row " + rowNr + ": " + e.getMessage(), e);
             }
+        });
+        java.util.Map<Functor, java.util.List<Predicate>> perFunctor = new LinkedHashMap<>();
+        Set<Functor> changed = Set.of(relationKey(functor));
+        for (Predicate fact : facts) { // facts of literal arguments may have the literal functor
+            perFunctor.computeIfAbsent(relationKey(fact.functor()), f -> new ArrayList<>()).add(fact);
+            changed = changed.add(relationKey(fact.functor()));
         }
-        return result;
+        int[] added = new int[1];
+        factsLock.writeLock().lock();
+        try {
+            relations.updateAndGet(m -> {
+                added[0] = 0;
+                for (java.util.Map.Entry<Functor, java.util.List<Predicate>> e : perFunctor.entrySet()) {
+                    // FactArguments only builds facts of FactType functors, also when they are literal
+                    Relation relation = m.getOrDefault(e.getKey(), Relation.EMPTY_FACT_TYPE);
+                    Relation loaded = relation.addFacts(e.getValue());
+                    added[0] += loaded.size() - relation.size();
+                    m = m.put(e.getKey(), loaded);
+                }
+                return m;
+            });
+            invalidate(changed);
+            factsVersion++;
+        } finally {
+            factsLock.writeLock().unlock();
+        }
+        return added[0];
     }
 
     public InferResult getFacts(Predicate predicate, InferContext context) {
-        InferResult result = facts.get().get(predicate);
-        if (result != null) {
-            result = result.cast(predicate);
+        Relation relation = relation(predicate.functor());
+        InferResult result;
+        if (predicate.isFullyBound()) {
+            result = relation.contains(predicate) ? predicate.factCC() : predicate.falsehoodCC();
         } else {
-            result = predicate.isFullyBound() ? predicate.falsehoodCC() : InferResult.factsCI(predicate, Set.of());
+            result = InferResult.factsCI(predicate, InferResult.cast(relation.match(predicate), predicate));
         }
         if (context.trace()) {
             System.out.println(context.prefix() + "  " + predicate + " " + result);
@@ -585,13 +983,11 @@ public final class KnowledgeBase implements ParseExceptionHandler {
             }
         }
         System.out.printf("    %s%-96s%s%n", U.colorCode(46), "facts", U.colorCode(0));
-        for (Entry<Predicate, InferResult> e : facts()) {
-            if (e.getValue().isTrueCC()) {
-                stream.println("        " + e.getKey());
-                if (withTokens) {
-                    for (Token token : e.getKey().tokens()) {
-                        stream.println("            " + token);
-                    }
+        for (Predicate f : facts()) {
+            stream.println("        " + f);
+            if (withTokens) {
+                for (Token token : f.tokens()) {
+                    stream.println("            " + token);
                 }
             }
         }
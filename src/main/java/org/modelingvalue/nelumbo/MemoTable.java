@@ -0,0 +1,311 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.modelingvalue.collections.Set;
+import org.modelingvalue.nelumbo.lang.Functor;
+import org.modelingvalue.nelumbo.logic.InferResult;
+import org.modelingvalue.nelumbo.logic.Predicate;
+
+/**
+ * Concurrent memoization table of inference results with CLOCK eviction and a byte budget. Lookups fall back to the
+ * (read-only) table of the parent knowledge base, except for entries that were invalidated in this table. Every table
+ * has a budget of its own, {@link #MAX_LOGIC_MEMOIZ_BYTES} unless given: a parent keeps growing after its children
+ * are created, so a share of what it has left would starve them. The bytes of the stored entries are charged to the
+ * {@link Governor} of the table, if any, and released again when the entries are evicted or invalidated. The table
+ * of a model that is the shared tier of the knowledge bases derived from it gets a larger budget, apart from theirs,
+ * typically {@link #MAX_SHARED_MEMOIZ_BYTES} (see {@link KnowledgeBase#shareMemoization}).
+ */
+public final class MemoTable {
+
+    public static final long  MAX_LOGIC_MEMOIZ_BYTES  = Long.getLong("MAX_LOGIC_MEMOIZ_BYTES", 64L << 20);
+    public static final long  MAX_SHARED_MEMOIZ_BYTES = Long.getLong("MAX_SHARED_MEMOIZ_BYTES", 256L << 20);
+    private static final int  INITIAL_USAGE_COUNT     = Integer.getInteger("INITIAL_USAGE_COUNT", 1);
+    private static final int  MAX_USAGE_COUNT         = Math.max(INITIAL_USAGE_COUNT, 4);
+    static final long         ENTRY_BYTES             = 160;
+    private static final long ELEMENT_BYTES           = 48;
+
+    private static final class Memo {
+        private final Predicate premise;
+        private volatile InferResult result;
+        private volatile int         usage = INITIAL_USAGE_COUNT;
+        private long                 bytes;
+        private boolean              evicted;
+        private Set<Functor>         functors;
+        private Governor             governor;
+
+        private Memo(Predicate premise) {
+            this.premise = premise;
+        }
+
+        private boolean dependsOn(Set<Functor> affected) {
+            Set<Functor> f = functors;
+            if (f == null) {
+                functors = f = premise.functors().map(Functor::declaration).asSet();
+            }
+            for (Functor functor : f) {
+                if (affected.contains(functor)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final MemoTable                          parent;
+    private volatile long                            budget;
+    private final ConcurrentHashMap<Predicate, Memo> map           = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Memo>        clock         = new ConcurrentLinkedQueue<>();
+    private final AtomicLong                         bytes         = new AtomicLong();
+    private final AtomicBoolean                      evicting      = new AtomicBoolean();
+    private final LongAdder                          hits          = new LongAdder();
+    private final LongAdder                          misses        = new LongAdder();
+    private final LongAdder                          evictions     = new LongAdder();
+    private final LongAdder                          invalidations = new LongAdder();
+    private volatile Set<Functor>                    blocked       = Set.of();
+    private volatile Governor                        governor;
+
+    public MemoTable(MemoTable parent) {
+        this(parent, MAX_LOGIC_MEMOIZ_BYTES);
+    }
+
+    public MemoTable(MemoTable parent, long budget) {
+        this.parent = parent;
+        this.budget = budget;
+    }
+
+    public void setGovernor(Governor governor) {
+        this.governor = governor;
+    }
+
+    /**
+     * Sets the byte budget of this table, and evicts down to it when it is smaller than the bytes stored.
+     */
+    public void setBudget(long budget) {
+        this.budget = budget;
+        if (bytes.get() > budget) {
+            evict();
+        }
+    }
+
+    public InferResult get(Predicate predicate) {
+        InferResult result = lookup(predicate);
+        if (result != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return result;
+    }
+
+    private InferResult lookup(Predicate predicate) {
+        Set<Functor> blocked = Set.of();
+        for (MemoTable table = this; table != null; table = table.parent) {
+            Memo memo = table.map.get(predicate);
+            if (memo != null) {
+                InferResult result = memo.result;
+                if (result != null && (blocked.isEmpty() || !memo.dependsOn(blocked))) {
+                    int usage = memo.usage;
+                    if (usage < MAX_USAGE_COUNT) {
+                        memo.usage = usage + 1;
+                    }
+                    return result;
+                }
+            }
+            Set<Functor> b = table.blocked;
+            if (!b.isEmpty()) {
+                blocked = blocked.isEmpty() ? b : blocked.addAll(b);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes the entries of which the premise contains one of the affected functors (declarations, a bound copy of a
+     * functor counts as its declaration), and hides those entries of the parent tables. The removed entries are taken off the clock as well, so their results can be collected.
+     */
+    public void invalidate(Set<Functor> affected) {
+        if (affected.isEmpty()) {
+            return;
+        }
+        if (parent != null) {
+            synchronized (this) {
+                blocked = blocked.addAll(affected);
+            }
+        }
+        boolean removed = false;
+        for (Memo memo : map.values()) {
+            if (memo.dependsOn(affected)) {
+                synchronized (memo) {
+                    if (!memo.evicted && memo.result != null) {
+                        remove(memo);
+                        invalidations.increment();
+                        NelumboEvents.evict(memo.premise, memo.bytes, true);
+                        removed = true;
+                    }
+                }
+            }
+        }
+        if (removed) {
+            clock.removeIf(memo -> memo.evicted);
+        }
+    }
+
+    private void remove(Memo memo) {
+        memo.evicted = true;
+        memo.result = null;
+        map.remove(memo.premise, memo);
+        bytes.addAndGet(-memo.bytes);
+        if (memo.governor != null) {
+            memo.governor.released(memo.bytes);
+            memo.governor = null;
+        }
+    }
+
+    public void put(Predicate predicate, InferResult result) {
+        long size = bytes(result);
+        Governor charged = governor, released;
+        long releasedBytes;
+        while (true) {
+            Memo memo = map.computeIfAbsent(predicate, Memo::new);
+            synchronized (memo) {
+                if (memo.evicted) {
+                    continue;
+                }
+                if (memo.result == null) {
+                    clock.add(memo);
+                }
+                bytes.addAndGet(size - memo.bytes);
+                released = memo.governor;
+                releasedBytes = memo.bytes;
+                memo.result = result;
+                memo.bytes = size;
+                memo.governor = charged;
+            }
+            break;
+        }
+        if (bytes.get() > budget) {
+            evict();
+        }
+        if (released != null) {
+            released.released(releasedBytes);
+        }
+        if (charged != null) {
+            charged.retained(size);
+        }
+    }
+
+    /**
+     * Sweeps the clock hand until the table is back under its budget. Entries that were used since the last sweep get
+     * a second chance. Only one thread sweeps at a time; the others just carry on.
+     */
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            while (bytes.get() > budget) {
+                Memo memo = clock.poll();
+                if (memo == null) {
+                    return;
+                }
+                synchronized (memo) {
+                    int usage = memo.usage;
+                    if (memo.evicted) {
+                        continue;
+                    } else if (usage > 0) {
+                        memo.usage = usage - 1;
+                        clock.add(memo);
+                    } else {
+                        remove(memo);
+                        evictions.increment();
+                        NelumboEvents.evict(memo.premise, memo.bytes, false);
+                    }
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    static long bytes(InferResult result) {
+        return ENTRY_BYTES + ELEMENT_BYTES * (result.facts().size() + result.falsehoods().size() + result.cycles().size());
+    }
+
+    public MemoTable parent() {
+        return parent;
+    }
+
+    /**
+     * The functors invalidated in this table and in the parents up to (not including) the given ancestor, or null if
+     * the ancestor is not one of the parents.
+     */
+    public Set<Functor> blockedBelow(MemoTable ancestor) {
+        Set<Functor> result = Set.of();
+        for (MemoTable table = this; table != null; table = table.parent) {
+            if (table == ancestor) {
+                return result;
+            }
+            Set<Functor> b = table.blocked;
+            if (!b.isEmpty()) {
+                result = result.isEmpty() ? b : result.addAll(b);
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public long bytes() {
+        return bytes.get();
+    }
+
+    public long budget() {
+        return budget;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public long invalidations() {
+        return invalidations.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "MemoTable[size=" + size() + ", bytes=" + bytes() + ", hits=" + hits() + ", misses=" + misses()
+                + ", evictions=" + evictions() + ", invalidations=" + invalidations() + "]";
+    }
+
+}
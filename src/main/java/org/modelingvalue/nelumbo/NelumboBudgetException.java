@@ -0,0 +1,62 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo;
+
+import java.io.Serial;
+
+/**
+ * Thrown by the inference engine when the current {@link KnowledgeBase} exhausted one of its {@link Budget} limits
+ * (see {@link KnowledgeBase#setBudget(Budget)}). Unwinds the in-progress inference like
+ * {@link NelumboTimeoutException}.
+ */
+public final class NelumboBudgetException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public enum Resource {
+        RULE_APPLICATIONS("rule applications"),
+        DERIVED_FACTS("derived facts"),
+        BYTES("retained bytes");
+
+        private final String description;
+
+        Resource(String description) {
+            this.description = description;
+        }
+
+        public String description() {
+            return description;
+        }
+    }
+
+    private final Resource resource;
+    private final long     limit;
+
+    public NelumboBudgetException(Resource resource, long limit) {
+        super("inference exceeded its budget of " + limit + " " + resource.description());
+        this.resource = resource;
+        this.limit = limit;
+    }
+
+    public Resource resource() {
+        return resource;
+    }
+
+    public long limit() {
+        return limit;
+    }
+}
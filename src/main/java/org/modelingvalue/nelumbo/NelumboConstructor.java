@@ -21,6 +21,11 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.util.Arrays;
 import java.util.Map;
@@ -42,11 +47,21 @@ import org.modelingvalue.nelumbo.syntax.ParseException;
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.CONSTRUCTOR)
 public @interface NelumboConstructor {
+
+    /**
+     * Creates a Node through a {@link NelumboConstructor}, bound once by {@link Finder#factory(Constructor)}.
+     */
+    @FunctionalInterface
+    public interface Factory {
+        Node create(NodeInfo nodeInfo, Object[] args);
+    }
+
     public class Finder {
         private static final Class<?>[] EXPECTED_PARAMS = { NodeInfo.class, Object[].class };
 
         private static final Map<String, Class<?>>                      CACHE1 = new ConcurrentHashMap<>();
         private static final Map<Class<?>, Constructor<? extends Node>> CACHE2 = new ConcurrentHashMap<>();
+        private static final Map<Constructor<?>, Factory>              CACHE3 = new ConcurrentHashMap<>();
 
         public static Class<?> find(String className, KnowledgeBase kb, List<AstElement> list) throws ParseException {
             Class<?> clazz = CACHE1.get(className);
@@ -80,6 +95,39 @@ public @interface NelumboConstructor {
             return result;
         }
 
+        /**
+         * A factory that calls the constructor directly, generated with {@link LambdaMetafactory}. Falls back to a
+         * method handle if the constructor cannot be linked from here (e.g. a class of another class loader).
+         */
+        public static Factory factory(Constructor<? extends Node> constructor) {
+            return CACHE3.computeIfAbsent(constructor, c -> {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                MethodHandle handle;
+                try {
+                    handle = lookup.unreflectConstructor(c).asFixedArity();
+                } catch (IllegalAccessException e) {
+                    throw new IllegalArgumentException(e);
+                }
+                MethodType type = MethodType.methodType(Node.class, NodeInfo.class, Object[].class);
+                try {
+                    CallSite site = LambdaMetafactory.metafactory(lookup, "create", MethodType.methodType(Factory.class),
+                            type, handle, handle.type());
+                    return (Factory) site.getTarget().invokeExact();
+                } catch (Throwable t) {
+                    MethodHandle generic = handle.asType(type);
+                    return (nodeInfo, args) -> {
+                        try {
+                            return (Node) generic.invokeExact(nodeInfo, args);
+                        } catch (RuntimeException | Error e) {
+                            throw e;
+                        } catch (Throwable e) {
+                            throw new IllegalArgumentException(e);
+                        }
+                    };
+                }
+            });
+        }
+
         @SuppressWarnings("unchecked")
         private static Constructor<? extends Node> find(Class<?> clazz) throws NoSuchMethodException {
             Constructor<? extends Node> result = null;
@@ -0,0 +1,225 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+import org.modelingvalue.nelumbo.lang.Functor;
+import org.modelingvalue.nelumbo.logic.InferResult;
+import org.modelingvalue.nelumbo.logic.Predicate;
+
+/**
+ * Java Flight Recorder events of the parser and the inference engine. The duration events have a threshold and the
+ * very frequent memo hit, miss and evict events are disabled by default, so an always-on recording stays cheap; both
+ * can be changed in the recording settings, e.g. {@code jfr configure org.modelingvalue.nelumbo.MemoHit#enabled=true}.
+ * <p>
+ * The events are created unconditionally and only filled in when they will be committed: when no recording is
+ * running, the JIT removes the allocations.
+ */
+public final class NelumboEvents {
+
+    private static final String CATEGORY = "Nelumbo";
+
+    private NelumboEvents() {
+    }
+
+    @Name("org.modelingvalue.nelumbo.ParseFile")
+    @Label("Parse File")
+    @Description("Parsing (and evaluating) one source")
+    @Category({CATEGORY, "Syntax"})
+    @Threshold("1 ms")
+    @StackTrace(false)
+    public static final class ParseFile extends Event {
+        @Label("File")
+        String file;
+        @Label("Roots")
+        int    roots;
+        @Label("Errors")
+        int    errors;
+
+        public void report(String file, int roots, int errors) {
+            end();
+            if (shouldCommit()) {
+                this.file = file;
+                this.roots = roots;
+                this.errors = errors;
+                commit();
+            }
+        }
+    }
+
+    @Name("org.modelingvalue.nelumbo.QueryEvaluate")
+    @Label("Query Evaluate")
+    @Description("Inference of one query")
+    @Category({CATEGORY, "Inference"})
+    @Threshold("1 ms")
+    @StackTrace(false)
+    public static final class QueryEvaluate extends Event {
+        @Label("Functor")
+        String  functor;
+        @Label("Query")
+        String  query;
+        @Label("Facts")
+        int     facts;
+        @Label("Falsehoods")
+        int     falsehoods;
+        @Label("Complete")
+        boolean complete;
+
+        public void report(Predicate predicate, InferResult result) {
+            end();
+            if (shouldCommit()) {
+                this.functor = name(predicate.functor());
+                this.query = predicate.toString();
+                if (result != null) {
+                    this.facts = result.facts().size();
+                    this.falsehoods = result.falsehoods().size();
+                    this.complete = result.completeFacts() && result.completeFalsehoods();
+                }
+                commit();
+            }
+        }
+    }
+
+    @Name("org.modelingvalue.nelumbo.FixpointIteration")
+    @Label("Fixpoint Iteration")
+    @Description("One round of applying the rules of a (recursive) predicate")
+    @Category({CATEGORY, "Inference"})
+    @Threshold("1 ms")
+    @StackTrace(false)
+    public static final class FixpointIteration extends Event {
+        @Label("Functor")
+        String functor;
+        @Label("Predicate")
+        String predicate;
+        @Label("Iteration")
+        int    iteration;
+        @Label("Facts")
+        int    facts;
+
+        public void report(Predicate predicate, int iteration, InferResult result) {
+            end();
+            if (shouldCommit()) {
+                this.functor = name(predicate.functor());
+                this.predicate = predicate.toString();
+                this.iteration = iteration;
+                this.facts = result.hasStackOverflow() ? 0 : result.facts().size();
+                commit();
+            }
+        }
+    }
+
+    @Name("org.modelingvalue.nelumbo.MemoHit")
+    @Label("Memo Hit")
+    @Category({CATEGORY, "Memoization"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class MemoHit extends Event {
+        @Label("Functor")
+        String functor;
+        @Label("Predicate")
+        String predicate;
+    }
+
+    @Name("org.modelingvalue.nelumbo.MemoMiss")
+    @Label("Memo Miss")
+    @Category({CATEGORY, "Memoization"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class MemoMiss extends Event {
+        @Label("Functor")
+        String functor;
+        @Label("Predicate")
+        String predicate;
+    }
+
+    @Name("org.modelingvalue.nelumbo.MemoEvict")
+    @Label("Memo Evict")
+    @Description("A memoized result dropped by the CLOCK sweep or invalidated by a changed fact or rule")
+    @Category({CATEGORY, "Memoization"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class MemoEvict extends Event {
+        @Label("Functor")
+        String  functor;
+        @Label("Invalidated")
+        boolean invalidated;
+        @Label("Size")
+        @DataAmount
+        long    bytes;
+    }
+
+    @Name("org.modelingvalue.nelumbo.Timeout")
+    @Label("Timeout")
+    @Description("Inference aborted at its deadline")
+    @Category({CATEGORY, "Inference"})
+    public static final class Timeout extends Event {
+        @Label("Overrun")
+        @Timespan
+        long overrun;
+    }
+
+    public static void memo(Predicate predicate, boolean hit) {
+        if (hit) {
+            MemoHit event = new MemoHit();
+            if (event.isEnabled()) {
+                event.functor = name(predicate.functor());
+                event.predicate = predicate.toString();
+                event.commit();
+            }
+        } else {
+            MemoMiss event = new MemoMiss();
+            if (event.isEnabled()) {
+                event.functor = name(predicate.functor());
+                event.predicate = predicate.toString();
+                event.commit();
+            }
+        }
+    }
+
+    public static void evict(Predicate premise, long bytes, boolean invalidated) {
+        MemoEvict event = new MemoEvict();
+        if (event.isEnabled()) {
+            event.functor = name(premise.functor());
+            event.bytes = bytes;
+            event.invalidated = invalidated;
+            event.commit();
+        }
+    }
+
+    public static void timeout(long overrunNanos) {
+        Timeout event = new Timeout();
+        if (event.isEnabled()) {
+            event.overrun = overrunNanos;
+            event.commit();
+        }
+    }
+
+    private static String name(Functor functor) {
+        return functor != null ? functor.name() : null;
+    }
+
+}
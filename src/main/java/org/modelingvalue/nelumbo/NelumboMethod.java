@@ -42,6 +42,14 @@ import org.modelingvalue.nelumbo.syntax.ParseException;
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface NelumboMethod {
+
+    /**
+     * Whether the method needs the inference context, because it evaluates a Lambda or checks for an incomplete
+     * result. Methods that do not can opt out with {@code context = false}; they are called directly, without
+     * setting up the context.
+     */
+    boolean context() default true;
+
     public class Finder {
 
         private static final Map<Pair<Class<?>, String>, Object> CACHE          = new ConcurrentHashMap<>();
@@ -19,8 +19,6 @@ package org.modelingvalue.nelumbo;
 import static org.modelingvalue.nelumbo.KnowledgeBase.TRACE_SYNTATIC;
 
 import java.io.Serial;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -326,14 +324,9 @@ public class Node extends StructImpl implements AstElement {
         if (getClass() != Node.class) {
             Functor functor = functor();
             if (functor != null) {
-                Constructor<?> constructor = functor.constructor();
-                if (constructor != null) {
-                    try {
-                        return (Node) constructor.newInstance(nodeInfo, args);
-                    } catch (InstantiationException | IllegalAccessException | IllegalArgumentException
-                            | InvocationTargetException e) {
-                        throw new IllegalArgumentException(e);
-                    }
+                NelumboConstructor.Factory factory = functor.factory();
+                if (factory != null) {
+                    return factory.create(nodeInfo, args);
                 }
             }
             throw new IllegalStateException(
@@ -361,6 +354,29 @@ public class Node extends StructImpl implements AstElement {
         return allLocalVars;
     }
 
+    /**
+     * The functors of this node and of all nodes nested in it.
+     */
+    public Set<Functor> functors() {
+        Functor functor = functor();
+        Set<Functor> functors = functor != null ? Set.of(functor) : Set.of();
+        for (int i = 0; i < length(); i++) {
+            functors = functors(get(i), functors);
+        }
+        return functors;
+    }
+
+    private static Set<Functor> functors(Object val, Set<Functor> functors) {
+        if (val instanceof Node node && !(val instanceof Type)) {
+            functors = functors.addAll(node.functors());
+        } else if (val instanceof ContainingCollection<?> coll) {
+            for (Object e : coll) {
+                functors = functors(e, functors);
+            }
+        }
+        return functors;
+    }
+
     public final Map<Variable, Object> getBinding() {
         if (binding == null) {
             binding = getBinding(declaration());
@@ -435,6 +451,14 @@ public class Node extends StructImpl implements AstElement {
         return setBinding(declaration(), vars, false);
     }
 
+    /**
+     * The shared instance of this node if interning is enabled, see {@link Interner}. Only call it for fully bound
+     * terms.
+     */
+    public Node intern() {
+        return Interner.INTERN_NELUMBO ? Interner.intern(this) : this;
+    }
+
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public Node setTypeArgs(Map<Variable, Type> typeArgs) {
         return setBinding(declaration(), (Map) typeArgs, true);
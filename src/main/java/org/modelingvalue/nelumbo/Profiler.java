@@ -0,0 +1,145 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.modelingvalue.nelumbo.lang.Functor;
+import org.modelingvalue.nelumbo.logic.Rule;
+
+/**
+ * Aggregates where inference spends its time, per rule and per functor: invocations, fixpoint iterations, memo hits
+ * and misses, derived facts and inclusive and exclusive time. Installed with
+ * {@link KnowledgeBase#setProfiler(Profiler)} and shared with the child knowledge bases; without a profiler the engine
+ * only pays a null check.
+ * <p>
+ * Timed sections are {@link #enter() entered} and {@link #exit exited} on the same thread. Exclusive time is the
+ * inclusive time minus that of the sections nested on the same thread, so work forked to other threads (parallel
+ * mode) is counted as exclusive time of the forking section as well.
+ */
+public final class Profiler {
+
+    private static final class Stats {
+        private final Object    key;
+        private final LongAdder invocations  = new LongAdder();
+        private final LongAdder iterations   = new LongAdder();
+        private final LongAdder memoHits     = new LongAdder();
+        private final LongAdder memoMisses   = new LongAdder();
+        private final LongAdder derivedFacts = new LongAdder();
+        private final LongAdder inclusive    = new LongAdder();
+        private final LongAdder exclusive    = new LongAdder();
+
+        private Stats(Object key) {
+            this.key = key;
+        }
+    }
+
+    private static final class Frames {
+        private long[] nested = new long[64];
+        private int    depth;
+    }
+
+    private final ConcurrentHashMap<Object, Stats> stats  = new ConcurrentHashMap<>();
+    private final ThreadLocal<Frames>              frames = ThreadLocal.withInitial(Frames::new);
+
+    private Stats stats(Object key) {
+        return stats.computeIfAbsent(key, Stats::new);
+    }
+
+    /**
+     * Starts a timed section, returns the start time to pass to {@link #exit}.
+     */
+    public long enter() {
+        Frames f = frames.get();
+        if (f.depth == f.nested.length) {
+            f.nested = Arrays.copyOf(f.nested, f.depth * 2);
+        }
+        f.nested[f.depth++] = 0;
+        return System.nanoTime();
+    }
+
+    /**
+     * Ends the timed section of a rule application or of a fixpoint or native call of a functor.
+     */
+    public void exit(Object key, long start, int nrOfFacts) {
+        long elapsed = System.nanoTime() - start;
+        Frames f = frames.get();
+        long nested = f.nested[--f.depth];
+        if (f.depth > 0) {
+            f.nested[f.depth - 1] += elapsed;
+        }
+        Stats s = stats(key);
+        s.invocations.increment();
+        s.inclusive.add(elapsed);
+        s.exclusive.add(elapsed - nested);
+        if (nrOfFacts > 0) {
+            s.derivedFacts.add(nrOfFacts);
+        }
+    }
+
+    public void iteration(Functor functor) {
+        stats(functor).iterations.increment();
+    }
+
+    public void memo(Functor functor, boolean hit) {
+        Stats s = stats(functor);
+        (hit ? s.memoHits : s.memoMisses).increment();
+    }
+
+    /**
+     * The statistics as JSON-ready maps, the most expensive (inclusive time) first.
+     */
+    public List<Map<String, Object>> report() {
+        List<Stats> sorted = new ArrayList<>(stats.values());
+        sorted.sort(Comparator.comparingLong((Stats s) -> s.inclusive.sum()).reversed());
+        List<Map<String, Object>> report = new ArrayList<>();
+        for (Stats s : sorted) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("kind", s.key instanceof Rule ? "rule" : "functor");
+            entry.put("name", s.key instanceof Functor functor ? functor.name() : s.key.toString());
+            entry.put("invocations", s.invocations.sum());
+            entry.put("iterations", s.iterations.sum());
+            entry.put("memoHits", s.memoHits.sum());
+            entry.put("memoMisses", s.memoMisses.sum());
+            entry.put("derivedFacts", s.derivedFacts.sum());
+            entry.put("inclusiveMs", s.inclusive.sum() / 1e6);
+            entry.put("exclusiveMs", s.exclusive.sum() / 1e6);
+            report.add(entry);
+        }
+        return report;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(String.format("%12s %12s %8s %8s %8s %8s %8s  %s%n", //
+                "inclusiveMs", "exclusiveMs", "calls", "iters", "hits", "misses", "facts", "rule/functor"));
+        for (Map<String, Object> e : report()) {
+            sb.append(String.format("%12.3f %12.3f %8d %8d %8d %8d %8d  %s%n", e.get("inclusiveMs"),
+                    e.get("exclusiveMs"), e.get("invocations"), e.get("iterations"), e.get("memoHits"),
+                    e.get("memoMisses"), e.get("derivedFacts"), e.get("name")));
+        }
+        return sb.toString();
+    }
+
+}
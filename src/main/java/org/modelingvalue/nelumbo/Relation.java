@@ -0,0 +1,284 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+
+import org.modelingvalue.collections.Collection;
+import org.modelingvalue.collections.Map;
+import org.modelingvalue.collections.Set;
+import org.modelingvalue.nelumbo.lang.Type;
+import org.modelingvalue.nelumbo.logic.Predicate;
+
+/**
+ * The facts of one fact functor, with a hash index per argument position. Immutable; every add returns a new
+ * relation that shares structure with the old one.
+ * <p>
+ * Large relations of FactType functors ({@link #COLUMNAR_THRESHOLD} facts or more) are kept in {@link FactColumns}
+ * instead: dictionary encoded off-heap columns, with predicates created only for the facts that are returned. Smaller
+ * batches added after that go to the persistent sets as before, until those reach the threshold and are appended to
+ * the columns, so a relation is the union of its columns and its sets.
+ */
+public final class Relation {
+
+    public static final int      COLUMNAR_THRESHOLD = Integer.getInteger("COLUMNAR_THRESHOLD", 1 << 16);
+
+    /**
+     * The empty relation of a functor that is not a FactType functor; it is never stored columnar.
+     */
+    public static final Relation EMPTY              = new Relation(false);
+    /**
+     * The empty relation of a FactType functor.
+     */
+    public static final Relation EMPTY_FACT_TYPE    = new Relation(true);
+
+    private final boolean                       factType;
+    private final FactColumns                   columns;
+    private final Set<Predicate>                facts;
+    private final Map<Object, Set<Predicate>>[] index;
+    private final int                           hash;
+
+    @SuppressWarnings("unchecked")
+    private Relation(boolean factType) {
+        this.factType = factType;
+        this.columns = null;
+        this.facts = Set.of();
+        this.index = new Map[0];
+        this.hash = 0;
+    }
+
+    private Relation(boolean factType, FactColumns columns, Set<Predicate> facts, Map<Object, Set<Predicate>>[] index,
+            int hash) {
+        this.factType = factType;
+        this.columns = columns;
+        this.facts = facts;
+        this.index = index;
+        this.hash = hash;
+    }
+
+    /**
+     * All facts. For a columnar relation this creates a predicate for every row; inference uses {@link #match}.
+     */
+    public Set<Predicate> facts() {
+        return columns != null ? facts.addAll(Collection.of(columns.rows())) : facts;
+    }
+
+    public int size() {
+        return facts.size() + (columns != null ? columns.size() : 0);
+    }
+
+    public boolean isColumnar() {
+        return columns != null;
+    }
+
+    public boolean contains(Predicate fact) {
+        return facts.contains(fact) || (columns != null && columns.contains(fact));
+    }
+
+    /**
+     * The number of facts with the given value at argument position i.
+     */
+    public int count(int i, Object value) {
+        int count = i < index.length ? index[i].getOrDefault(value, Set.of()).size() : 0;
+        return columns != null ? count + columns.count(i, value) : count;
+    }
+
+    /**
+     * An upper bound of the number of facts matching the pattern: the smallest index bucket of its bound positions.
+     */
+    public int estimate(Predicate pattern) {
+        int estimate = size();
+        for (int i = 0; i < pattern.length(); i++) {
+            Object value = pattern.get(i);
+            if (!(value instanceof Type)) {
+                estimate = Math.min(estimate, count(i, value));
+            }
+        }
+        return estimate;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Relation add(Predicate fact) {
+        if (contains(fact)) {
+            return this;
+        }
+        int length = fact.length();
+        Map<Object, Set<Predicate>>[] idx = new Map[Math.max(length, index.length)];
+        System.arraycopy(index, 0, idx, 0, index.length);
+        for (int i = 0; i < idx.length; i++) {
+            if (idx[i] == null) {
+                idx[i] = Map.of();
+            }
+            if (i < length) {
+                Object key = fact.get(i);
+                idx[i] = idx[i].put(key, idx[i].getOrDefault(key, Set.of()).add(fact));
+            }
+        }
+        return new Relation(factType, columns, facts.add(fact), idx, hash + fact.hashCode());
+    }
+
+    public Relation addAll(Relation other) {
+        if (other == this || other.size() == 0) {
+            return this;
+        } else if (size() == 0) {
+            return other;
+        }
+        return addFacts(other.columns == columns ? other.facts : other.facts());
+    }
+
+    /**
+     * Adds the facts in one pass: the new facts are grouped per argument position and value first, so every bucket of
+     * the index is replaced once instead of once per fact. When the persistent sets of a FactType relation would reach
+     * {@link #COLUMNAR_THRESHOLD} facts, they are appended to its columns together with the batch instead.
+     */
+    @SuppressWarnings("unchecked")
+    public Relation addFacts(Iterable<Predicate> added) {
+        java.util.Set<Predicate> fresh = new LinkedHashSet<>();
+        int length = index.length;
+        int arity = columns != null ? columns.arity() : -1;
+        boolean uniform = true;
+        int hash = this.hash;
+        for (Predicate fact : added) {
+            if (!contains(fact) && fresh.add(fact)) {
+                hash += fact.hashCode();
+                length = Math.max(length, fact.length());
+                arity = arity < 0 ? fact.length() : arity;
+                uniform &= fact.length() == arity;
+            }
+        }
+        if (fresh.isEmpty()) {
+            return this;
+        } else if (factType && uniform && length == arity && facts.size() + fresh.size() >= COLUMNAR_THRESHOLD) {
+            return columnar(fresh, hash);
+        }
+        Map<Object, Set<Predicate>>[] idx = new Map[length];
+        System.arraycopy(index, 0, idx, 0, index.length);
+        for (int i = 0; i < length; i++) {
+            java.util.Map<Object, java.util.List<Predicate>> buckets = new HashMap<>();
+            for (Predicate fact : fresh) {
+                if (i < fact.length()) {
+                    buckets.computeIfAbsent(fact.get(i), k -> new ArrayList<>()).add(fact);
+                }
+            }
+            Map<Object, Set<Predicate>> map = idx[i] != null ? idx[i] : Map.of();
+            for (java.util.Map.Entry<Object, java.util.List<Predicate>> e : buckets.entrySet()) {
+                Set<Predicate> bucket = map.getOrDefault(e.getKey(), Set.of());
+                map = map.put(e.getKey(), bucket.addAll(Collection.of(e.getValue().stream())));
+            }
+            idx[i] = map;
+        }
+        return new Relation(factType, columns, facts.addAll(Collection.of(fresh.stream())), idx, hash);
+    }
+
+    /**
+     * Appends the facts of the persistent sets and the batch to the columns, which only encodes those.
+     */
+    @SuppressWarnings("unchecked")
+    private Relation columnar(java.util.Set<Predicate> fresh, int hash) {
+        java.util.List<Predicate> rows = new ArrayList<>(facts.size() + fresh.size());
+        facts.forEach(rows::add);
+        rows.addAll(fresh);
+        return new Relation(factType, columns != null ? columns.append(rows) : FactColumns.of(rows), Set.of(),
+                new Map[0], hash);
+    }
+
+    /**
+     * All facts matching the pattern, lazily. Bound arguments must be equal, {@link Type} arguments (unbound
+     * variables) match every fact whose argument at that position is of that type. The candidates are taken from the
+     * smallest index bucket of the bound positions, so the cost is proportional to that bucket and not to the
+     * relation. Predicates for the matching rows of the columns are only created when the result is traversed.
+     */
+    public Collection<Predicate> match(Predicate pattern) {
+        Collection<Predicate> result = matchFacts(pattern);
+        return columns != null ? Collection.concat(result, Collection.of(columns.match(pattern))) : result;
+    }
+
+    private Collection<Predicate> matchFacts(Predicate pattern) {
+        int length = pattern.length();
+        Set<Predicate> candidates = facts;
+        for (int i = 0; i < length && !candidates.isEmpty(); i++) {
+            Object value = pattern.get(i);
+            if (!(value instanceof Type)) {
+                Set<Predicate> bucket = i < index.length ? index[i].getOrDefault(value, Set.of()) : Set.of();
+                if (bucket.size() < candidates.size()) {
+                    candidates = bucket;
+                }
+            }
+        }
+        return candidates.filter(fact -> matches(pattern, fact, length));
+    }
+
+    private static boolean matches(Predicate pattern, Predicate fact, int length) {
+        if (fact.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            Object value = pattern.get(i);
+            if (value instanceof Type type) {
+                Type factType = fact.getType(i);
+                if (factType == null || !type.isAssignableFrom(factType)) {
+                    return false;
+                }
+            } else if (!value.equals(fact.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Relations are equal when they hold the same facts, however they are stored. The size and the content hash are
+     * compared first, and columns that both share are not compared at all. Otherwise every fact of this relation is
+     * looked up in the other one; rows of the columns become predicates one at a time, the set of all facts is never
+     * built.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Relation other) || hash != other.hash || size() != other.size()) {
+            return false;
+        }
+        if (columns == other.columns) {
+            return facts.equals(other.facts);
+        }
+        for (Predicate fact : facts) {
+            if (!other.contains(fact)) {
+                return false;
+            }
+        }
+        return columns == null || columns.rows().allMatch(other::contains);
+    }
+
+    /**
+     * The sum of the hash codes of the facts, kept up to date by every add: it does not depend on which facts are
+     * columnar.
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return columns != null ? "columnar(" + size() + ")" : facts.toString();
+    }
+
+}
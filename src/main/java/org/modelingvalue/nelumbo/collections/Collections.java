@@ -38,7 +38,7 @@ public class Collections extends Predicate {
         super(nodeInfo, args);
     }
 
-    @NelumboMethod
+    @NelumboMethod(context = false)
     protected InferResult size(NCollection collection, NInteger size) {
         if (collection == null) {
             return unknown();
@@ -50,7 +50,7 @@ public class Collections extends Predicate {
         return size.value().equals(found) ? factCC() : falsehoodCC();
     }
 
-    @NelumboMethod
+    @NelumboMethod(context = false)
     protected InferResult indexOf(NList list, Object element, NInteger index) {
         if (list == null) {
             return unknown();
@@ -77,7 +77,7 @@ public class Collections extends Predicate {
         return InferResult.factsCI(this, facts);
     }
 
-    @NelumboMethod
+    @NelumboMethod(context = false)
     protected InferResult elementOf(NSet set, Object element) {
         if (set == null) {
             return unknown();
@@ -93,7 +93,7 @@ public class Collections extends Predicate {
         return InferResult.factsCI(this, facts);
     }
 
-    @NelumboMethod
+    @NelumboMethod(context = false)
     protected InferResult subset(NSet a, NSet b) {
         if (a == null || b == null) {
             return unknown();
@@ -101,7 +101,7 @@ public class Collections extends Predicate {
         return b.collection().containsAll(a.collection()) ? factCC() : falsehoodCC();
     }
 
-    @NelumboMethod
+    @NelumboMethod(context = false)
     protected InferResult intersection(NSet a, NSet b, NSet i) {
         if (a == null || b == null) {
             return unknown();
@@ -113,7 +113,7 @@ public class Collections extends Predicate {
         return set(2, intersection).factCI();
     }
 
-    @NelumboMethod
+    @NelumboMethod(context = false)
     protected InferResult union(NSet a, NSet b, NSet u) {
         if (a == null || b == null) {
             return unknown();
@@ -125,7 +125,7 @@ public class Collections extends Predicate {
         return set(2, union).factCI();
     }
 
-    @NelumboMethod
+    @NelumboMethod(context = false)
     protected InferResult diff(NSet a, NSet b, NSet d) {
         if (a == null || b == null) {
             return unknown();
@@ -137,7 +137,7 @@ public class Collections extends Predicate {
         return set(2, diff).factCI();
     }
 
-    @NelumboMethod
+    @NelumboMethod(context = false)
     protected InferResult concat(NList a, NList b, NList c) {
         if (a == null || b == null) {
             return unknown();
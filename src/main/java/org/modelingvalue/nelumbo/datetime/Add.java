@@ -71,7 +71,7 @@ public final class Add extends Predicate {
         return unknown();
     }
 
-    @NelumboMethod
+    @NelumboMethod(context = false)
     public InferResult period_add(NPeriod a, NPeriod b, NPeriod c) {
         if (nrOfUnbound() > 1) {
             return unknown();
@@ -35,7 +35,7 @@ public final class Multiply extends Predicate {
         super(nodeInfo, args);
     }
 
-    @NelumboMethod
+    @NelumboMethod(context = false)
     public InferResult period_multiply(NPeriod d, NInteger n, NPeriod e) {
         if (nrOfUnbound() > 1) {
             return unknown();
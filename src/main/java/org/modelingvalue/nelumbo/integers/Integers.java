@@ -34,53 +34,47 @@ public final class Integers extends Predicate {
         super(nodeInfo, args);
     }
 
-    @NelumboMethod
+    @NelumboMethod(context = false)
     protected InferResult add(NInteger addend1, NInteger addend2, NInteger sum) {
         if (nrOfUnbound() > 1) {
             return unknown();
         }
-        BigInteger a1 = addend1 == null ? null : addend1.value();
-        BigInteger a2 = addend2 == null ? null : addend2.value();
-        BigInteger s = sum == null ? null : sum.value();
-        if (a1 != null && a2 != null) {
-            BigInteger r = a1.add(a2);
-            if (s != null) {
-                return r.equals(s) ? factCC() : falsehoodCC();
+        if (addend1 != null && addend2 != null) {
+            NInteger r = add(addend1, addend2);
+            if (sum != null) {
+                return compare(r, sum) == 0 ? factCC() : falsehoodCC();
             }
-            return set(2, NInteger.of(r)).factCI();
-        } else if (a1 != null && s != null) {
-            return set(1, NInteger.of(s.subtract(a1))).factCI();
-        } else if (a2 != null && s != null) {
-            return set(0, NInteger.of(s.subtract(a2))).factCI();
+            return set(2, r).factCI();
+        } else if (addend1 != null && sum != null) {
+            return set(1, subtract(sum, addend1)).factCI();
+        } else if (addend2 != null && sum != null) {
+            return set(0, subtract(sum, addend2)).factCI();
         }
         return unknown();
     }
 
-    @NelumboMethod
+    @NelumboMethod(context = false)
     protected InferResult mult(NInteger factor1, NInteger factor2, NInteger product) {
         if (nrOfUnbound() > 1) {
             return unknown();
         }
-        BigInteger f1 = factor1 == null ? null : factor1.value();
-        BigInteger f2 = factor2 == null ? null : factor2.value();
-        BigInteger p = product == null ? null : product.value();
-        if (f1 != null && f2 != null) {
-            BigInteger r = f1.multiply(f2);
-            if (p != null) {
-                return r.equals(p) ? factCC() : falsehoodCC();
+        if (factor1 != null && factor2 != null) {
+            NInteger r = multiply(factor1, factor2);
+            if (product != null) {
+                return compare(r, product) == 0 ? factCC() : falsehoodCC();
             }
-            return set(2, NInteger.of(r)).factCI();
-        } else if (f1 != null && p != null) {
-            BigInteger[] dr = p.divideAndRemainder(f1);
-            return dr[1].equals(BigInteger.ZERO) ? set(1, NInteger.of(dr[0])).factCI() : falsehoodCI();
-        } else if (f2 != null && p != null) {
-            BigInteger[] dr = p.divideAndRemainder(f2);
-            return dr[1].equals(BigInteger.ZERO) ? set(0, NInteger.of(dr[0])).factCI() : falsehoodCI();
+            return set(2, r).factCI();
+        } else if (factor1 != null && product != null) {
+            NInteger q = divide(product, factor1);
+            return q != null ? set(1, q).factCI() : falsehoodCI();
+        } else if (factor2 != null && product != null) {
+            NInteger q = divide(product, factor2);
+            return q != null ? set(0, q).factCI() : falsehoodCI();
         }
         return unknown();
     }
 
-    @NelumboMethod
+    @NelumboMethod(context = false)
     protected InferResult gt(NInteger left, NInteger right) {
         if (nrOfUnbound() > 1) {
             return unknown();
@@ -91,7 +85,63 @@ public final class Integers extends Predicate {
         if (right == null) {
             return set(1, get(0)).falsehoodsII();
         }
-        return left.value().compareTo(right.value()) > 0 ? factCC() : falsehoodCC();
+        return compare(left, right) > 0 ? factCC() : falsehoodCC();
+    }
+
+    // Arithmetic on longs when both operands fit, promoting to BigInteger on overflow.
+
+    private static NInteger add(NInteger a, NInteger b) {
+        if (a.isLong() && b.isLong()) {
+            try {
+                return NInteger.of(Math.addExact(a.longValue(), b.longValue()));
+            } catch (ArithmeticException e) {
+                // overflow
+            }
+        }
+        return NInteger.of(a.value().add(b.value()));
+    }
+
+    private static NInteger subtract(NInteger a, NInteger b) {
+        if (a.isLong() && b.isLong()) {
+            try {
+                return NInteger.of(Math.subtractExact(a.longValue(), b.longValue()));
+            } catch (ArithmeticException e) {
+                // overflow
+            }
+        }
+        return NInteger.of(a.value().subtract(b.value()));
+    }
+
+    private static NInteger multiply(NInteger a, NInteger b) {
+        if (a.isLong() && b.isLong()) {
+            try {
+                return NInteger.of(Math.multiplyExact(a.longValue(), b.longValue()));
+            } catch (ArithmeticException e) {
+                // overflow
+            }
+        }
+        return NInteger.of(a.value().multiply(b.value()));
+    }
+
+    /**
+     * The exact quotient, or null if there is a remainder.
+     */
+    private static NInteger divide(NInteger a, NInteger b) {
+        if (a.isLong() && b.isLong()) {
+            long x = a.longValue(), y = b.longValue();
+            if (y != 0 && !(x == Long.MIN_VALUE && y == -1)) {
+                return x % y == 0 ? NInteger.of(x / y) : null;
+            }
+        }
+        BigInteger[] dr = a.value().divideAndRemainder(b.value());
+        return dr[1].equals(BigInteger.ZERO) ? NInteger.of(dr[0]) : null;
+    }
+
+    private static int compare(NInteger a, NInteger b) {
+        if (a.isLong() && b.isLong()) {
+            return Long.compare(a.longValue(), b.longValue());
+        }
+        return a.value().compareTo(b.value());
     }
 
 }
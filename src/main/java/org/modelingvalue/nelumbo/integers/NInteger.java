@@ -35,31 +35,86 @@ public final class NInteger extends Node {
     @Serial
     private static final long serialVersionUID = 2454372545442550574L;
 
-    private static final BigInteger MIN = BigInteger.valueOf(Long.MIN_VALUE);
-    private static final BigInteger MAX = BigInteger.valueOf(Long.MAX_VALUE);
+    private static final int CACHE_LOW  = -128;
+    private static final int CACHE_HIGH = 1024;
 
     @NelumboFunctorField
     private static Functor FUNCTOR;
 
+    private static volatile Cache cache;
+
+    private record Cache(Functor functor, NInteger[] values) {
+    }
+
+    // The value when it fits in a long; otherwise the argument is a BigInteger.
+    private final long           longValue;
+    private final boolean        isLong;
+    private transient BigInteger bigValue;
+
     public static NInteger of(BigInteger val) {
-        return new NInteger(NodeInfo.of(FUNCTOR), val);
+        return val.bitLength() < Long.SIZE ? of(val.longValue()) : new NInteger(NodeInfo.of(FUNCTOR), val);
+    }
+
+    /**
+     * The NInteger of a long value. Small values are shared instances. A value that fits in a long is always stored
+     * as a Long, also when it is given as a BigInteger, so equality and hashing do not depend on how the integer was
+     * created.
+     */
+    public static NInteger of(long val) {
+        if (val < CACHE_LOW || val >= CACHE_HIGH) {
+            return new NInteger(NodeInfo.of(FUNCTOR), val);
+        }
+        Functor functor = FUNCTOR;
+        Cache c = cache;
+        if (c == null || c.functor() != functor) {
+            cache = c = new Cache(functor, new NInteger[CACHE_HIGH - CACHE_LOW]);
+        }
+        int i = (int) (val - CACHE_LOW);
+        NInteger n = c.values()[i];
+        if (n == null) {
+            c.values()[i] = n = new NInteger(NodeInfo.of(functor), val);
+        }
+        return n;
     }
 
     @NelumboConstructor
     public NInteger(NodeInfo nodeInfo, Object... args) {
-        super(nodeInfo, args);
+        super(nodeInfo, normalize(args));
+        Object value = length() == 1 ? get(0) : null;
+        this.isLong = value instanceof Long;
+        this.longValue = value instanceof Long l ? l : 0;
+    }
+
+    private static Object[] normalize(Object[] args) {
+        if (args.length == 1 && args[0] instanceof BigInteger big && big.bitLength() < Long.SIZE) {
+            return new Object[]{big.longValue()};
+        }
+        return args;
     }
 
     public BigInteger value() {
-        return (BigInteger) get(0);
+        BigInteger value = bigValue;
+        if (value == null) {
+            bigValue = value = isLong ? BigInteger.valueOf(longValue) : (BigInteger) get(0);
+        }
+        return value;
+    }
+
+    /**
+     * Whether the value fits in a long, so {@link #longValue()} is exact.
+     */
+    public boolean isLong() {
+        return isLong;
+    }
+
+    public long longValue() {
+        return isLong ? longValue : value().longValue();
     }
 
     @Override
     public String toString(TokenType[] previous) {
-        BigInteger value = getVal(0);
-        String string = value.compareTo(MAX) > 0 || value.compareTo(MIN) < 0
-                ? (Character.MAX_RADIX + "#" + value.toString(Character.MAX_RADIX))
-                : value.toString();
+        String string = isLong ? Long.toString(longValue)
+                : (Character.MAX_RADIX + "#" + value().toString(Character.MAX_RADIX));
         if (previous[0] == TokenType.NAME || previous[0] == TokenType.NUMBER) {
             previous[0] = TokenType.NUMBER;
             return " " + string;
@@ -82,7 +137,7 @@ public final class NInteger extends Node {
             if ("-".equals(get(0))) {
                 val = val.negate();
             }
-            return setArgs(val);
+            return setArgs(val); // normalized to a Long when it fits
         }
         return this;
     }
@@ -39,6 +39,7 @@ import org.modelingvalue.nelumbo.NodeInfo;
 import org.modelingvalue.nelumbo.collections.NList;
 import org.modelingvalue.nelumbo.logic.And;
 import org.modelingvalue.nelumbo.logic.ExistentialQuantifier;
+import org.modelingvalue.nelumbo.logic.MethodInvoker;
 import org.modelingvalue.nelumbo.logic.NIs;
 import org.modelingvalue.nelumbo.logic.Predicate;
 import org.modelingvalue.nelumbo.logic.Rule;
@@ -77,6 +78,9 @@ public class Functor extends Node implements FunctorOrType {
     private ParseState    startPre;
     private ParseState    startPost;
 
+    private transient MethodInvoker              invoker;
+    private transient NelumboConstructor.Factory factory;
+
     private Functor(List<AstElement> elements, Object... args) {
         super(NodeInfo.of(Type.FUNCTOR, elements), args);
     }
@@ -110,6 +114,20 @@ public class Functor extends Node implements FunctorOrType {
         return val instanceof Constructor ? (Constructor<? extends Node>) val : null;
     }
 
+    /**
+     * The {@link #constructor()} bound to a generated factory, created once per functor.
+     */
+    public NelumboConstructor.Factory factory() {
+        NelumboConstructor.Factory f = factory;
+        if (f == null) {
+            Constructor<? extends Node> constructor = constructor();
+            if (constructor != null) {
+                factory = f = NelumboConstructor.Finder.factory(constructor);
+            }
+        }
+        return f;
+    }
+
     public Integer leftPrecedence() {
         return (Integer) get(4);
     }
@@ -118,6 +136,20 @@ public class Functor extends Node implements FunctorOrType {
         return (Method) get(5);
     }
 
+    /**
+     * The {@link #method()} bound to a method handle, created once per functor.
+     */
+    public MethodInvoker invoker() {
+        MethodInvoker i = invoker;
+        if (i == null) {
+            Method method = method();
+            if (method != null) {
+                invoker = i = MethodInvoker.of(method);
+            }
+        }
+        return i;
+    }
+
     @Override
     public Variable variable() {
         return constructedVariable();
@@ -181,10 +213,10 @@ public class Functor extends Node implements FunctorOrType {
 
     public Node construct(List<AstElement> elements, Object[] args, ParseExceptionHandler handler, ParseContext ctx)
             throws ParseException {
-        Constructor<? extends Node> constructor = constructor();
-        if (constructor != null) {
+        NelumboConstructor.Factory factory = factory();
+        if (factory != null) {
             try {
-                return constructor.newInstance(NodeInfo.of(this, elements), args);
+                return factory.create(NodeInfo.of(this, elements), args);
             } catch (Exception e) {
                 handleException(elements, handler, e);
             }
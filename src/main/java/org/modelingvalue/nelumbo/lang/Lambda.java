@@ -120,6 +120,7 @@ public final class Lambda extends Node {
 
     private static InferResult resolve(Predicate p, boolean bool) {
         InferContext ctx = CURRENT_CONTEXT.get();
+        ctx.knowledgebase().checkLimits();
         InferResult result = p.resolve(ctx);
         if (result.hasStackOverflow()) {
             ctx.incompleteResult().set(result);
@@ -48,7 +48,7 @@ public abstract class BinaryPredicate extends CompoundPredicate {
         InferResult[] predResult = new InferResult[2];
         predicate[0] = predicate(0);
         predicate[1] = predicate(1);
-        order(predicate);
+        order(predicate, context);
         for (int i = 0; i < 2; i++) {
             predResult[i] = predicate[i].infer(context);
             if (predResult[i].hasStackOverflow()) {
@@ -106,11 +106,13 @@ public abstract class BinaryPredicate extends CompoundPredicate {
 
     protected abstract boolean isRight(InferResult[] predResult);
 
-    protected boolean order(Predicate[] predicate) {
+    protected boolean order(Predicate[] predicate, InferContext context) {
         if (predicate[0] instanceof NBoolean && !(predicate[1] instanceof NBoolean)) {
             return false;
         } else if (predicate[1] instanceof NBoolean && !(predicate[0] instanceof NBoolean)) {
             return flip(predicate);
+        } else if (Planner.PLAN_NELUMBO) {
+            return Planner.order(this, predicate, context);
         } else if (REVERSE_NELUMBO) {
             return flip(predicate);
         } else if (RANDOM_NELUMBO && ThreadLocalRandom.current().nextBoolean()) {
@@ -17,8 +17,12 @@
 package org.modelingvalue.nelumbo.logic;
 
 import java.io.Serial;
+import java.util.Collections;
+import java.util.Iterator;
 
+import org.modelingvalue.collections.Collection;
 import org.modelingvalue.collections.Entry;
+import org.modelingvalue.collections.List;
 import org.modelingvalue.collections.Map;
 import org.modelingvalue.collections.Set;
 import org.modelingvalue.nelumbo.NodeInfo;
@@ -32,60 +36,199 @@ public abstract class CompoundPredicate extends Predicate {
         super(nodeInfo, args);
     }
 
+    private static final int PARALLEL_FRONTIER_THRESHOLD = Integer.getInteger("PARALLEL_FRONTIER_THRESHOLD", 16);
+
+    private static final class Frontier {
+        private final InferContext deep;
+        private final InferContext shallow;
+        private final InferContext reduce;
+
+        private Map<Map<Variable, Object>, Predicate> next  = Map.of();
+        private Set<Predicate>                        facts = Set.of(), falsehoods = Set.of(), cycles = Set.of();
+        private boolean                               completeFacts = true, completeFalsehoods = true;
+        private InferResult                           overflow;
+        private RuntimeException                      exception;
+
+        private Frontier(InferContext deep, InferContext shallow, InferContext reduce) {
+            this.deep = deep;
+            this.shallow = shallow;
+            this.reduce = reduce;
+        }
+
+        private Frontier part() {
+            return new Frontier(deep, shallow, reduce);
+        }
+
+        private void add(Frontier part) {
+            next = next.putAll(part.next);
+            facts = facts.addAll(part.facts);
+            falsehoods = falsehoods.addAll(part.falsehoods);
+            cycles = cycles.addAll(part.cycles);
+            completeFacts &= part.completeFacts;
+            completeFalsehoods &= part.completeFalsehoods;
+            overflow = part.overflow;
+        }
+    }
+
     @Override
     public InferResult resolve(InferContext context) {
-        Map<Map<Variable, Object>, Predicate> now, next = Map.of(Entry.of(getBinding(), this));
-        Set<Predicate> facts = Set.of(), falsehoods = Set.of(), cycles = Set.of();
-        boolean completeFacts = true, completeFalsehoods = true;
-        InferContext deep = context.toDeep(); // Resolve variables shallow (bind)
-        InferContext shallow = context.toShallow(); // Resolve variables deep (bind)
-        InferContext reduce = context.toReduce(); // Do not resolve variables but perform logic and simplify (rewrite)
+        Frontier frontier = new Frontier(context.toDeep(), // Resolve variables shallow (bind)
+                context.toShallow(), // Resolve variables deep (bind)
+                context.toReduce()); // Do not resolve variables but perform logic and simplify (rewrite)
+        Map<Map<Variable, Object>, Predicate> now;
+        frontier.next = Map.of(Entry.of(getBinding(), this));
         do {
-            now = next;
-            next = Map.of();
-            for (Entry<Map<Variable, Object>, Predicate> entry : now) {
-                Map<Variable, Object> binding = entry.getKey();
-                Predicate predicate = entry.getValue();
-                InferContext resolve = shallow;
-                InferResult result = predicate.infer(reduce);
-                if (result.hasStackOverflow()) {
-                    return result;
-                } else if (result.isFalseCC()) {
-                    falsehoods = falsehoods.add(setBinding(binding));
-                } else if (result.isTrueCC()) {
-                    facts = facts.add(setBinding(binding));
-                } else {
-                    predicate = result.predicate();
-                    resolve = deep;
-                }
-                result = predicate.infer(resolve);
-                if (result.hasStackOverflow()) {
-                    return result;
-                } else if (!result.isUnknown()) {
-                    for (Predicate pred : result.allFacts()) {
-                        Map<Variable, Object> b = pred.getBinding();
-                        if (!b.isEmpty()) {
-                            b = binding.putAll(b);
-                            next = next.put(b, predicate.setBinding(b).replace(pred, NBoolean.TRUE));
-                        }
+            now = frontier.next;
+            frontier.next = Map.of();
+            if (PARALLEL_NELUMBO && now.size() >= PARALLEL_FRONTIER_THRESHOLD) {
+                resolveParallel(level(now, context), frontier);
+            } else {
+                for (Entry<Map<Variable, Object>, Predicate> entry : level(now, context)) {
+                    context.knowledgebase().checkLimits();
+                    if (!resolve(entry.getKey(), entry.getValue(), frontier)) {
+                        break;
                     }
-                    for (Predicate pred : result.allFalsehoods()) {
-                        Map<Variable, Object> b = pred.getBinding();
-                        if (!b.isEmpty()) {
-                            b = binding.putAll(b);
-                            next = next.put(b, predicate.setBinding(b).replace(pred, NBoolean.FALSE));
+                }
+            }
+            if (frontier.overflow != null) {
+                return frontier.overflow;
+            }
+        } while (!frontier.next.isEmpty());
+        return InferResult.of(this, frontier.facts, frontier.completeFacts, frontier.falsehoods,
+                frontier.completeFalsehoods, frontier.cycles);
+    }
+
+    /**
+     * Splits the frontier in contiguous parts that are resolved in parallel, and adds the parts in frontier order, so
+     * the result (including which stack overflow or exception surfaces) is the same as that of the sequential loop.
+     */
+    private void resolveParallel(Collection<Entry<Map<Variable, Object>, Predicate>> level, Frontier frontier) {
+        List<Entry<Map<Variable, Object>, Predicate>> entries = level.asList();
+        int size = entries.size();
+        int nrOfParts = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), //
+                size / PARALLEL_FRONTIER_THRESHOLD));
+        Frontier[] parts = new Frontier[nrOfParts];
+        Runnable[] tasks = new Runnable[nrOfParts];
+        for (int p = 0; p < nrOfParts; p++) {
+            Frontier part = frontier.part();
+            int from = size * p / nrOfParts, to = size * (p + 1) / nrOfParts;
+            parts[p] = part;
+            tasks[p] = () -> {
+                try {
+                    for (int i = from; i < to; i++) {
+                        frontier.deep.knowledgebase().checkLimits();
+                        Entry<Map<Variable, Object>, Predicate> entry = entries.get(i);
+                        if (!resolve(entry.getKey(), entry.getValue(), part)) {
+                            return;
                         }
                     }
-                    completeFacts &= result.completeFacts();
-                    completeFalsehoods &= result.completeFalsehoods();
-                    cycles = cycles.addAll(result.cycles());
-                } else if (resolve == deep) {
-                    completeFacts = false;
-                    completeFalsehoods = false;
+                } catch (RuntimeException e) {
+                    part.exception = e;
+                }
+            };
+        }
+        frontier.deep.knowledgebase().parallel(tasks);
+        for (Frontier part : parts) {
+            if (part.exception != null) {
+                throw part.exception;
+            }
+            frontier.add(part);
+            if (frontier.overflow != null) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Resolves level by level like {@link #resolve(InferContext)}, but one frontier entry per step, so facts are
+     * emitted as soon as they are found and the entries and levels after the last fact taken are not resolved. The
+     * entries of the next level are collected the same way, so once exhausted the result is that of
+     * {@link #resolve(InferContext)}.
+     */
+    @Override
+    protected Solutions solutions(InferContext context) {
+        Frontier frontier = new Frontier(context.toDeep(), context.toShallow(), context.toReduce());
+        frontier.next = Map.of(Entry.of(getBinding(), this));
+        return new Solutions(this) {
+            private Iterator<Entry<Map<Variable, Object>, Predicate>> now = Collections.emptyIterator();
+
+            @Override
+            protected boolean advance() {
+                if (!now.hasNext()) {
+                    now = level(frontier.next, context).iterator();
+                    frontier.next = Map.of();
+                }
+                Entry<Map<Variable, Object>, Predicate> entry = now.next();
+                context.knowledgebase().checkLimits();
+                Frontier step = frontier.part();
+                step.next = frontier.next;
+                if (!resolve(entry.getKey(), entry.getValue(), step)) {
+                    overflow(step.overflow);
+                    return false;
+                }
+                frontier.next = step.next;
+                step.facts.forEach(this::emit);
+                step.falsehoods.forEach(this::falsehood);
+                step(step.completeFacts, step.completeFalsehoods, step.cycles);
+                return now.hasNext() || !frontier.next.isEmpty();
+            }
+        };
+    }
+
+    /**
+     * The entries of a level of the frontier in the order they are resolved, planned by cost if planning is on.
+     */
+    private Collection<Entry<Map<Variable, Object>, Predicate>> level(Map<Map<Variable, Object>, Predicate> now,
+            InferContext context) {
+        return Planner.PLAN_NELUMBO ? Planner.frontier(this, now, context) : now;
+    }
+
+    @Override
+    public boolean hasIncrementalSolutions() {
+        return true;
+    }
+
+    private boolean resolve(Map<Variable, Object> binding, Predicate predicate, Frontier frontier) {
+        InferContext resolve = frontier.shallow;
+        InferResult result = predicate.infer(frontier.reduce);
+        if (result.hasStackOverflow()) {
+            frontier.overflow = result;
+            return false;
+        } else if (result.isFalseCC()) {
+            frontier.falsehoods = frontier.falsehoods.add(setBinding(binding));
+        } else if (result.isTrueCC()) {
+            frontier.facts = frontier.facts.add(setBinding(binding));
+        } else {
+            predicate = result.predicate();
+            resolve = frontier.deep;
+        }
+        result = predicate.infer(resolve);
+        if (result.hasStackOverflow()) {
+            frontier.overflow = result;
+            return false;
+        } else if (!result.isUnknown()) {
+            for (Predicate pred : result.allFacts()) {
+                Map<Variable, Object> b = pred.getBinding();
+                if (!b.isEmpty()) {
+                    b = binding.putAll(b);
+                    frontier.next = frontier.next.put(b, predicate.setBinding(b).replace(pred, NBoolean.TRUE));
+                }
+            }
+            for (Predicate pred : result.allFalsehoods()) {
+                Map<Variable, Object> b = pred.getBinding();
+                if (!b.isEmpty()) {
+                    b = binding.putAll(b);
+                    frontier.next = frontier.next.put(b, predicate.setBinding(b).replace(pred, NBoolean.FALSE));
                 }
             }
-        } while (!next.isEmpty());
-        return InferResult.of(this, facts, completeFacts, falsehoods, completeFalsehoods, cycles);
+            frontier.completeFacts &= result.completeFacts();
+            frontier.completeFalsehoods &= result.completeFalsehoods();
+            frontier.cycles = frontier.cycles.addAll(result.cycles());
+        } else if (resolve == frontier.deep) {
+            frontier.completeFacts = false;
+            frontier.completeFalsehoods = false;
+        }
+        return true;
     }
 
     protected final boolean isResolved(InferResult result, InferContext context) {
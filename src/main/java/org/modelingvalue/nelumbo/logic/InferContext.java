@@ -18,16 +18,25 @@ package org.modelingvalue.nelumbo.logic;
 
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.modelingvalue.collections.Entry;
 import org.modelingvalue.collections.List;
 import org.modelingvalue.collections.Map;
 import org.modelingvalue.nelumbo.KnowledgeBase;
 
+/**
+ * The context of an inference: the stack of predicates being inferred, the cycle results of the fixpoints in progress
+ * and the mode (shallow, reduce or deep). Implemented by {@link InferFrame}: immutable linked frames with cached mode
+ * variants, so switching modes does not allocate once a variant exists.
+ */
 public interface InferContext {
     KnowledgeBase knowledgebase();
 
+    /**
+     * The predicates on the stack, outermost first. Built on demand, use {@link #depth()} for the size.
+     */
     List<Predicate> stack();
 
-    Map<Predicate, InferResult> cycleResult();
+    int depth();
 
     boolean shallow();
 
@@ -52,82 +61,34 @@ public interface InferContext {
 
     static InferContext of(KnowledgeBase knowledgebase, List<Predicate> stack, Map<Predicate, InferResult> cyclic, //
             boolean shallow, boolean reduce, boolean trace, AtomicReference<InferResult> incompleteResult) {
-        return new InferContext() {
-            @Override
-            public KnowledgeBase knowledgebase() {
-                return knowledgebase;
-            }
-
-            @Override
-            public List<Predicate> stack() {
-                return stack;
-            }
-
-            @Override
-            public Map<Predicate, InferResult> cycleResult() {
-                return cyclic;
-            }
-
-            @Override
-            public boolean shallow() {
-                return shallow;
-            }
-
-            @Override
-            public boolean reduce() {
-                return reduce;
-            }
-
-            @Override
-            public boolean trace() {
-                return trace;
-            }
-
-            @Override
-            public AtomicReference<InferResult> incompleteResult() {
-                return incompleteResult;
-            }
-
-        };
+        InferContext context = new InferFrame(knowledgebase, trace, incompleteResult);
+        for (Predicate predicate : stack) {
+            context = context.pushOnStack(predicate);
+        }
+        for (Entry<Predicate, InferResult> e : cyclic) {
+            context = context.putCycleResult(e.getKey(), e.getValue());
+        }
+        return shallow ? context.toShallow() : reduce ? context.toReduce() : context;
     }
 
-    default InferContext pushOnStack(Predicate predicate) {
-        return of(knowledgebase(), stack().append(predicate), cycleResult(), false, false, trace(), incompleteResult());
-    }
+    InferContext pushOnStack(Predicate predicate);
 
-    default InferContext putCycleResult(Predicate predicate, InferResult cycleResult) {
-        return of(knowledgebase(), stack(), cycleResult().put(predicate, cycleResult), false, false, trace(),
-                incompleteResult());
-    }
+    InferContext putCycleResult(Predicate predicate, InferResult cycleResult);
 
-    default InferContext toReduce() {
-        return reduce() ? this : of(knowledgebase(), stack(), cycleResult(), false, true, trace(), incompleteResult());
-    }
+    InferContext toReduce();
 
-    default InferContext toShallow() {
-        return shallow() ? this : of(knowledgebase(), stack(), cycleResult(), true, false, trace(), incompleteResult());
-    }
+    InferContext toShallow();
 
-    default InferContext toDeep() {
-        return deep() ? this : of(knowledgebase(), stack(), cycleResult(), false, false, trace(), incompleteResult());
-    }
+    InferContext toDeep();
 
-    default InferContext trace(boolean trace) {
-        return trace == trace() ? this
-                : of(knowledgebase(), stack(), cycleResult(), shallow(), reduce(), trace, incompleteResult());
-    }
+    InferContext trace(boolean trace);
 
-    default InferContext withResult() {
-        return of(knowledgebase(), stack(), cycleResult(), shallow(), reduce(), trace(), new AtomicReference<>());
-    }
+    InferContext withResult();
 
     default String prefix() {
-        return "NELUMBO: " + "  ".repeat(stack().size());
+        return "NELUMBO: " + "  ".repeat(depth());
     }
 
-    default InferResult getCycleResult(Predicate predicate) {
-        InferResult result = cycleResult().get(predicate);
-        return result != null ? result.cast(predicate) : null;
-    }
+    InferResult getCycleResult(Predicate predicate);
 
 }
@@ -0,0 +1,179 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo.logic;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.modelingvalue.collections.List;
+import org.modelingvalue.nelumbo.KnowledgeBase;
+
+/**
+ * An immutable frame of the inference stack. Pushing a predicate or storing a cycle result links a new frame to the
+ * current one, instead of copying a persistent stack list and cycle result map. The shallow, reduce and deep variants
+ * of a frame are cached on the frame they were first asked from (its home). Frames are immutable, so the variants
+ * need no synchronization: subtasks that ask for the same variant at the same time at worst create equal frames.
+ */
+final class InferFrame implements InferContext {
+    private static final int SHALLOW = 1;
+    private static final int REDUCE  = 2;
+    private static final int TRACE   = 4;
+
+    private final KnowledgeBase                knowledgebase;
+    private final InferFrame                   base;
+    private final InferFrame                   parent;
+    private final InferFrame                   home;
+    private final Predicate                    predicate;
+    private final InferResult                  cycleResult;
+    private final boolean                      onStack;
+    private final int                          depth;
+    private final int                          mode;
+    private final AtomicReference<InferResult> incompleteResult;
+
+    private InferFrame deep, shallow, reduce;
+
+    InferFrame(KnowledgeBase knowledgebase, boolean trace, AtomicReference<InferResult> incompleteResult) {
+        this(knowledgebase, null, null, null, null, null, false, 0, trace ? TRACE : 0, incompleteResult);
+    }
+
+    private InferFrame(KnowledgeBase knowledgebase, InferFrame base, InferFrame parent, InferFrame home,
+            Predicate predicate, InferResult cycleResult, boolean onStack, int depth, int mode,
+            AtomicReference<InferResult> incompleteResult) {
+        this.knowledgebase = knowledgebase;
+        this.base = base != null ? base : this;
+        this.parent = parent;
+        this.home = home != null ? home : this;
+        this.predicate = predicate;
+        this.cycleResult = cycleResult;
+        this.onStack = onStack;
+        this.depth = depth;
+        this.mode = mode;
+        this.incompleteResult = incompleteResult;
+    }
+
+    @Override
+    public KnowledgeBase knowledgebase() {
+        return knowledgebase;
+    }
+
+    @Override
+    public List<Predicate> stack() {
+        Predicate[] stack = new Predicate[depth];
+        int i = depth;
+        for (InferFrame f = base; f != null; f = f.parent) {
+            if (f.onStack) {
+                stack[--i] = f.predicate;
+            }
+        }
+        return List.of(stack);
+    }
+
+    @Override
+    public int depth() {
+        return depth;
+    }
+
+    @Override
+    public boolean shallow() {
+        return (mode & SHALLOW) != 0;
+    }
+
+    @Override
+    public boolean reduce() {
+        return (mode & REDUCE) != 0;
+    }
+
+    @Override
+    public boolean trace() {
+        return (mode & TRACE) != 0;
+    }
+
+    @Override
+    public AtomicReference<InferResult> incompleteResult() {
+        return incompleteResult;
+    }
+
+    @Override
+    public InferContext pushOnStack(Predicate predicate) {
+        return new InferFrame(knowledgebase, null, base, null, predicate, null, true, depth + 1, mode & TRACE,
+                incompleteResult);
+    }
+
+    @Override
+    public InferContext putCycleResult(Predicate predicate, InferResult cycleResult) {
+        return new InferFrame(knowledgebase, null, base, null, predicate, cycleResult, false, depth, mode & TRACE,
+                incompleteResult);
+    }
+
+    @Override
+    public InferContext toReduce() {
+        InferFrame variant = home.reduce;
+        if (variant == null) {
+            home.reduce = variant = variant(REDUCE);
+        }
+        return variant;
+    }
+
+    @Override
+    public InferContext toShallow() {
+        InferFrame variant = home.shallow;
+        if (variant == null) {
+            home.shallow = variant = variant(SHALLOW);
+        }
+        return variant;
+    }
+
+    @Override
+    public InferContext toDeep() {
+        InferFrame variant = home.deep;
+        if (variant == null) {
+            home.deep = variant = variant(0);
+        }
+        return variant;
+    }
+
+    @Override
+    public InferContext trace(boolean trace) {
+        return trace == trace() ? this
+                : new InferFrame(knowledgebase, base, parent, null, predicate, cycleResult, onStack, depth,
+                        trace ? mode | TRACE : mode & ~TRACE, incompleteResult);
+    }
+
+    @Override
+    public InferContext withResult() {
+        return new InferFrame(knowledgebase, base, parent, null, predicate, cycleResult, onStack, depth, mode,
+                new AtomicReference<>());
+    }
+
+    private InferFrame variant(int mode) {
+        mode |= home.mode & TRACE;
+        return mode == home.mode ? home
+                : new InferFrame(knowledgebase, base, parent, home, predicate, cycleResult, onStack, depth, mode,
+                        incompleteResult);
+    }
+
+    @Override
+    public InferResult getCycleResult(Predicate predicate) {
+        for (InferFrame f = base; f != null; f = f.parent) {
+            InferResult result = f.cycleResult;
+            if (result != null && (f.predicate == predicate || f.predicate.equals(predicate))) {
+                return result.cast(predicate);
+            }
+        }
+        return null;
+    }
+
+}
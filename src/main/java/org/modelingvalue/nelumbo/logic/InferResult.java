@@ -532,6 +532,10 @@ public interface InferResult {
         return set.replaceAll(p -> p.equals(to) ? to : to.castFrom(p));
     }
 
+    static Set<Predicate> cast(Collection<Predicate> facts, Predicate to) {
+        return facts.map(p -> p.equals(to) ? to : to.castFrom(p)).asSet();
+    }
+
     abstract class InferResultImpl implements InferResult {
         @Override
         public String toString() {
@@ -0,0 +1,111 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo.logic;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+import org.modelingvalue.nelumbo.NelumboMethod;
+import org.modelingvalue.nelumbo.lang.Type;
+
+/**
+ * A {@link NelumboMethod} bound once to a {@link MethodHandle} with an erased signature. Predicates with up to four
+ * arguments are called without an argument array, larger ones through a spreader. Type arguments (unbound positions)
+ * are passed as {@code null}.
+ */
+public final class MethodInvoker {
+    private static final int SPREAD = 5;
+
+    public static MethodInvoker of(Method method) {
+        try {
+            return new MethodInvoker(method, MethodHandles.lookup().unreflect(method));
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private final Method       method;
+    private final MethodHandle handle;
+    private final int          arity;
+    private final boolean      context;
+
+    private MethodInvoker(Method method, MethodHandle handle) {
+        this.method = method;
+        this.arity = method.getParameterCount();
+        this.context = method.getAnnotation(NelumboMethod.class).context();
+        if (arity < SPREAD) {
+            MethodType type = MethodType.genericMethodType(arity).insertParameterTypes(0, Predicate.class)
+                    .changeReturnType(InferResult.class);
+            this.handle = handle.asType(type);
+        } else {
+            this.handle = handle.asSpreader(Object[].class, arity).asType(
+                    MethodType.methodType(InferResult.class, Predicate.class, Object[].class));
+        }
+    }
+
+    public Method method() {
+        return method;
+    }
+
+    /**
+     * Whether the method needs the inference context (for instance to evaluate a Lambda or to report an incomplete
+     * result), see {@link NelumboMethod#context()}.
+     */
+    public boolean context() {
+        return context;
+    }
+
+    InferResult invoke(Predicate predicate) {
+        try {
+            return switch (arity) {
+            case 0 -> (InferResult) handle.invokeExact(predicate);
+            case 1 -> (InferResult) handle.invokeExact(predicate, arg(predicate, 0));
+            case 2 -> (InferResult) handle.invokeExact(predicate, arg(predicate, 0), arg(predicate, 1));
+            case 3 -> (InferResult) handle.invokeExact(predicate, arg(predicate, 0), arg(predicate, 1),
+                    arg(predicate, 2));
+            case 4 -> (InferResult) handle.invokeExact(predicate, arg(predicate, 0), arg(predicate, 1),
+                    arg(predicate, 2), arg(predicate, 3));
+            default -> (InferResult) handle.invokeExact(predicate, args(predicate));
+            };
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalArgumentException(t);
+        }
+    }
+
+    private static Object arg(Predicate predicate, int i) {
+        Object arg = predicate.get(i);
+        return arg instanceof Type ? null : arg;
+    }
+
+    private Object[] args(Predicate predicate) {
+        Object[] args = new Object[arity];
+        for (int i = 0; i < arity; i++) {
+            args[i] = arg(predicate, i);
+        }
+        return args;
+    }
+
+    @Override
+    public String toString() {
+        return method.toString();
+    }
+
+}
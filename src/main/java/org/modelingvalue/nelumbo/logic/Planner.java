@@ -0,0 +1,121 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo.logic;
+
+import java.util.function.BiConsumer;
+
+import org.modelingvalue.collections.Entry;
+import org.modelingvalue.collections.List;
+import org.modelingvalue.collections.Map;
+import org.modelingvalue.nelumbo.KnowledgeBase;
+import org.modelingvalue.nelumbo.Node;
+import org.modelingvalue.nelumbo.lang.Functor;
+import org.modelingvalue.nelumbo.lang.Variable;
+
+/**
+ * Cost based ordering of the operands of conjunctions and disjunctions, and of the frontier of compound predicates.
+ * The cheapest (most selective) operand is inferred first, so the reduce step can short-circuit on it, and the
+ * cheapest residual predicates of a frontier level are resolved first. Costs are estimated from the number of unbound
+ * arguments, the cardinality of fact relations and the fan-out of derived functors observed by the knowledge base.
+ * Both operands are still inferred in deep mode and every frontier entry is still resolved, so results are identical
+ * to source order.
+ */
+public final class Planner {
+
+    public static final boolean PLAN_NELUMBO = Boolean.getBoolean("PLAN_NELUMBO");
+
+    private static final double DEFAULT_FAN_OUT = 8.0;
+
+    private static volatile BiConsumer<Predicate, Predicate[]> listener;
+
+    private Planner() {
+    }
+
+    /**
+     * Sets a (debug) listener that is called with every planned binary predicate and its operands in the chosen
+     * order, and with every compound predicate and the residual predicates of a level of its frontier in the chosen
+     * order. Null removes the listener.
+     */
+    public static void setListener(BiConsumer<Predicate, Predicate[]> listener) {
+        Planner.listener = listener;
+    }
+
+    static boolean order(BinaryPredicate binary, Predicate[] predicate, InferContext context) {
+        KnowledgeBase knowledgebase = context.knowledgebase();
+        boolean flip = cost(predicate[1], knowledgebase) < cost(predicate[0], knowledgebase);
+        if (flip) {
+            Predicate zero = predicate[0];
+            predicate[0] = predicate[1];
+            predicate[1] = zero;
+        }
+        if (context.trace()) {
+            System.out.println(context.prefix() + "  plan " + predicate[0] + " , " + predicate[1]);
+        }
+        BiConsumer<Predicate, Predicate[]> l = listener;
+        if (l != null) {
+            l.accept(binary, predicate.clone());
+        }
+        return flip;
+    }
+
+    static List<Entry<Map<Variable, Object>, Predicate>> frontier(CompoundPredicate compound,
+            Map<Map<Variable, Object>, Predicate> level, InferContext context) {
+        KnowledgeBase knowledgebase = context.knowledgebase();
+        List<Entry<Map<Variable, Object>, Predicate>> entries = level.sortedBy(e -> cost(e.getValue(), knowledgebase))
+                .asList();
+        if (context.trace() && entries.size() > 1) {
+            System.out.println(context.prefix() + "  plan " + entries.map(Entry::getValue).asList());
+        }
+        BiConsumer<Predicate, Predicate[]> l = listener;
+        if (l != null) {
+            Predicate[] predicates = new Predicate[entries.size()];
+            for (int i = 0; i < predicates.length; i++) {
+                predicates[i] = entries.get(i).getValue();
+            }
+            l.accept(compound, predicates);
+        }
+        return entries;
+    }
+
+    public static double cost(Predicate predicate, KnowledgeBase knowledgebase) {
+        if (predicate instanceof NBoolean) {
+            return 0.0;
+        } else if (predicate instanceof And and) {
+            return Math.min(cost(and.predicate1(), knowledgebase), cost(and.predicate2(), knowledgebase));
+        } else if (predicate instanceof CompoundPredicate) {
+            double cost = 0.0;
+            for (Node child : predicate.children()) {
+                if (child instanceof Predicate pred) {
+                    cost += cost(pred, knowledgebase);
+                }
+            }
+            return cost;
+        }
+        Functor functor = predicate.functor();
+        if (functor == null) {
+            return DEFAULT_FAN_OUT;
+        } else if (predicate.isFact()) {
+            return predicate.isFullyBound() ? 1.0 : knowledgebase.relation(functor).estimate(predicate);
+        } else if (functor.method() != null) {
+            return 1.0;
+        } else {
+            double fanOut = knowledgebase.fanOut(functor);
+            return (fanOut < 0.0 ? DEFAULT_FAN_OUT : fanOut + 1.0) * (1 + predicate.nrOfUnbound());
+        }
+    }
+
+}
@@ -17,20 +17,22 @@
 package org.modelingvalue.nelumbo.logic;
 
 import java.io.Serial;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.management.ManagementFactory;
 import java.util.function.Function;
 
+import org.modelingvalue.collections.Collection;
 import org.modelingvalue.collections.Entry;
 import org.modelingvalue.collections.List;
 import org.modelingvalue.collections.Map;
 import org.modelingvalue.collections.Set;
 import org.modelingvalue.collections.mutable.MutableMap;
+import org.modelingvalue.nelumbo.Interner;
 import org.modelingvalue.nelumbo.KnowledgeBase;
 import org.modelingvalue.nelumbo.NelumboConstructor;
-import org.modelingvalue.nelumbo.NelumboTimeoutException;
+import org.modelingvalue.nelumbo.NelumboEvents;
 import org.modelingvalue.nelumbo.Node;
 import org.modelingvalue.nelumbo.NodeInfo;
+import org.modelingvalue.nelumbo.Profiler;
 import org.modelingvalue.nelumbo.lang.Functor;
 import org.modelingvalue.nelumbo.lang.FunctorOrType;
 import org.modelingvalue.nelumbo.lang.Type;
@@ -39,18 +41,43 @@ import org.modelingvalue.nelumbo.syntax.ParseContext;
 import org.modelingvalue.nelumbo.syntax.ParseException;
 import org.modelingvalue.nelumbo.syntax.TokenType;
 
+import com.sun.management.HotSpotDiagnosticMXBean;
+
 public class Predicate extends Node {
     @Serial
     private static final long serialVersionUID = -1605559565948158856L;
 
-    protected static final boolean RANDOM_NELUMBO  = Boolean.getBoolean("RANDOM_NELUMBO");
-    protected static final boolean REVERSE_NELUMBO = Boolean.getBoolean("REVERSE_NELUMBO");
-    protected static final int     MAX_LOGIC_DEPTH = Integer.getInteger("MAX_LOGIC_DEPTH", 64);
+    protected static final boolean RANDOM_NELUMBO   = Boolean.getBoolean("RANDOM_NELUMBO");
+    protected static final boolean REVERSE_NELUMBO  = Boolean.getBoolean("REVERSE_NELUMBO");
+    protected static final boolean PARALLEL_NELUMBO = Boolean.getBoolean("PARALLEL_NELUMBO");
+    protected static final int     MAX_LOGIC_DEPTH  = Integer.getInteger("MAX_LOGIC_DEPTH", defaultLogicDepth());
 
-    private static final int MAX_LOGIC_DEPTH_D2 = MAX_LOGIC_DEPTH / 2;
+    private static final int     MAX_LOGIC_DEPTH_D2       = MAX_LOGIC_DEPTH / 2;
+    private static final int     PARALLEL_RULES_THRESHOLD = Integer.getInteger("PARALLEL_RULES_THRESHOLD", 4);
 
     public static Node INCOMPLETE = new Predicate(NodeInfo.of(Type.BOOLEAN), "..");
 
+    /**
+     * The inference depth at which goals are suspended (see {@link #flatten}), so the Java stack does not overflow: one
+     * level per 8 KB of the stack of the threads that infer, at most 64. A level of the examples takes up to 4 KB before
+     * the JIT compiles it, wider rules nest more compound predicates per level. Inference only runs on the workers of the
+     * knowledge base pool ({@link KnowledgeBase#run}, {@link KnowledgeBase#parallel}), whatever thread asks for it, and
+     * ForkJoin workers always get the default stack size of the JVM, ThreadStackSize (-Xss).
+     */
+    private static int defaultLogicDepth() {
+        long stackKB = 1024;
+        try {
+            HotSpotDiagnosticMXBean vm = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            long value = Long.parseLong(vm.getVMOption("ThreadStackSize").getValue());
+            if (value > 0) {
+                stackKB = value;
+            }
+        } catch (RuntimeException e) {
+            // not a HotSpot JVM, assume the common default of 1 MB
+        }
+        return (int) Math.max(8, Math.min(64, stackKB / 8));
+    }
+
     private int           nrOfUnbound    = -1;
     private Set<Variable> localVariables = null;
 
@@ -85,7 +112,7 @@ public class Predicate extends Node {
     }
 
     public Predicate castFrom(Predicate from) {
-        return set(nodeInfo(), from.toArray());
+        return internIfBound(set(nodeInfo(), from.toArray()));
     }
 
     @Override
@@ -144,7 +171,16 @@ public class Predicate extends Node {
 
     @Override
     public Predicate setBinding(Map<Variable, Object> vars) {
-        return (Predicate) super.setBinding(vars);
+        return internIfBound((Predicate) super.setBinding(vars));
+    }
+
+    @Override
+    public Predicate intern() {
+        return (Predicate) super.intern();
+    }
+
+    private static Predicate internIfBound(Predicate predicate) {
+        return Interner.INTERN_NELUMBO && predicate.isFullyBound() ? predicate.intern() : predicate;
     }
 
     @Override
@@ -167,19 +203,56 @@ public class Predicate extends Node {
     }
 
     public InferResult infer() {
+        return infer(-1);
+    }
+
+    /**
+     * Like {@link #infer()}, but with a limit that is not negative and {@link #hasIncrementalSolutions()} the inference
+     * stops after limit + 1 facts, and the result is then incomplete.
+     */
+    public InferResult infer(int limit) {
         KnowledgeBase knowledgeBase = KnowledgeBase.CURRENT.get();
         InferContext context = knowledgeBase.context();
         Predicate predicate = setTypes();
         if (context.trace()) {
             System.out.println(context.prefix() + predicate);
         }
-        InferResult result = predicate.resolve(context);
+        InferResult result;
+        if (limit >= 0 && predicate.hasIncrementalSolutions()) {
+            Solutions solutions = predicate.solutions(context);
+            for (int i = 0; i <= limit && solutions.hasNext(); i++) {
+                solutions.next();
+            }
+            result = solutions.result();
+        } else {
+            result = predicate.resolve(context);
+        }
         if (context.trace()) {
             System.out.println(context.prefix() + predicate + " " + result);
         }
         return result;
     }
 
+    /**
+     * The facts of this predicate, enumerated on demand in the current knowledge base. See {@link Solutions}.
+     */
+    public Solutions solutions() {
+        KnowledgeBase knowledgeBase = KnowledgeBase.CURRENT.get();
+        return setTypes().solutions(knowledgeBase.context());
+    }
+
+    protected Solutions solutions(InferContext context) {
+        return Solutions.of(resolve(context));
+    }
+
+    /**
+     * Whether {@link #solutions()} infers step by step, so a consumer that stops early also stops the inference.
+     * Otherwise the predicate is inferred as a whole first.
+     */
+    public boolean hasIncrementalSolutions() {
+        return false;
+    }
+
     @Override
     public Predicate setFunctorOrType(FunctorOrType functorOrType) {
         return (Predicate) super.setFunctorOrType(functorOrType);
@@ -308,24 +381,30 @@ public class Predicate extends Node {
     }
 
     private InferResult doInfer(int nrOfUnbound, InferContext context) {
-        Method method = functor().method();
-        return method != null ? callMethod(method, context) : infer(nrOfUnbound, context);
+        MethodInvoker invoker = functor().invoker();
+        return invoker != null ? callMethod(invoker, context) : infer(nrOfUnbound, context);
     }
 
-    private InferResult callMethod(Method method, InferContext context) {
-        return CURRENT_CONTEXT.get(context.withResult(), () -> {
-            try {
-                Object[] args = toArray();
-                for (int i = 0; i < args.length; i++) {
-                    if (args[i] instanceof Type) {
-                        args[i] = null;
-                    }
-                }
-                return (InferResult) method.invoke(this, args);
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                throw new IllegalArgumentException(e);
-            }
-        });
+    private InferResult callMethod(MethodInvoker invoker, InferContext context) {
+        Profiler profiler = context.knowledgebase().profiler();
+        if (profiler == null) {
+            return invoke(invoker, context);
+        }
+        long start = profiler.enter();
+        InferResult result = null;
+        try {
+            result = invoke(invoker, context);
+            return result;
+        } finally {
+            profiler.exit(functor(), start, result != null ? result.facts().size() : 0);
+        }
+    }
+
+    private InferResult invoke(MethodInvoker invoker, InferContext context) {
+        if (invoker.context()) {
+            return CURRENT_CONTEXT.get(context.withResult(), () -> invoker.invoke(this));
+        }
+        return invoker.invoke(this);
     }
 
     protected InferResult infer(int nrOfUnbound, InferContext context) {
@@ -347,20 +426,23 @@ public class Predicate extends Node {
             if (result != null) {
                 return result;
             }
-            List<Predicate> stack = context.stack();
-            if (stack.size() >= MAX_LOGIC_DEPTH) {
-                return InferResult.overflow(stack.append(this));
+            int depth = context.depth();
+            if (depth >= MAX_LOGIC_DEPTH) {
+                return InferResult.overflow(context.stack().append(this));
             }
             result = fixpoint(context.pushOnStack(this));
-            if (stack.size() >= MAX_LOGIC_DEPTH_D2) {
+            if (depth >= MAX_LOGIC_DEPTH_D2) {
                 List<Predicate> overflow = result.stackOverflow();
                 if (overflow != null) {
-                    if (stack.size() == MAX_LOGIC_DEPTH_D2) {
+                    if (depth == MAX_LOGIC_DEPTH_D2) {
                         result = flatten(result, overflow, context);
                     }
                     return result;
                 }
             }
+            if (Planner.PLAN_NELUMBO) {
+                knowledgebase.fanOut(functor, result.facts().size());
+            }
             knowledgebase.memoization(this, result);
             return result;
         }
@@ -370,11 +452,17 @@ public class Predicate extends Node {
         return false;
     }
 
+    /**
+     * Infers the goals that were suspended on the way down to an overflow, deepest first, on top of the stack of this
+     * frame. Goals that overflow again add their own suspended goals, and every goal is memoized when it completes, so a
+     * goal is only inferred again once everything below it is memoized.
+     */
     private static InferResult flatten(InferResult result, List<Predicate> overflow, InferContext context) {
-        int stackSize = context.stack().size();
+        int stackSize = context.depth();
         List<Predicate> todo = overflow.sublist(stackSize, overflow.size());
         KnowledgeBase knowledgebase = context.knowledgebase();
         while (!todo.isEmpty()) {
+            knowledgebase.checkLimits();
             Predicate predicate = todo.last();
             result = predicate.fixpoint(context.pushOnStack(predicate));
             overflow = result.stackOverflow();
@@ -388,13 +476,36 @@ public class Predicate extends Node {
         return result;
     }
 
+    /**
+     * Re-infers the rules until the result for this (cyclic) predicate is stable.
+     */
     private InferResult fixpoint(InferContext context) {
+        Profiler profiler = context.knowledgebase().profiler();
+        if (profiler == null) {
+            return iterate(context, null);
+        }
+        long start = profiler.enter();
+        InferResult result = null;
+        try {
+            result = iterate(context, profiler);
+            return result;
+        } finally {
+            profiler.exit(functor(), start, result != null && !result.hasStackOverflow() ? result.facts().size() : 0);
+        }
+    }
+
+    private InferResult iterate(InferContext context, Profiler profiler) {
         InferResult previousResult = null, cycleResult = InferResult.cycle(Set.of(), Set.of(), this), nextResult;
+        int iteration = 0;
         do {
-            if (context.knowledgebase().isPastDeadline()) {
-                throw new NelumboTimeoutException();
+            context.knowledgebase().checkLimits();
+            if (profiler != null) {
+                profiler.iteration(functor());
             }
+            NelumboEvents.FixpointIteration event = new NelumboEvents.FixpointIteration();
+            event.begin();
             nextResult = inferRules(context.putCycleResult(this, cycleResult));
+            event.report(this, ++iteration, nextResult);
             if (nextResult.hasStackOverflow()) {
                 return nextResult;
             }
@@ -425,11 +536,22 @@ public class Predicate extends Node {
         InferResult result = unknown();
         MutableMap<Variable, Type> typeArgs = MutableMap.of(Map.of());
         Set<Rule> rules = context.knowledgebase().getRules(this, typeArgs);
-        for (Rule rule : REVERSE_NELUMBO ? rules.reverse() : RANDOM_NELUMBO ? rules.random() : rules) {
-            result = rule.biimply(this, context, result);
+        Collection<Rule> ordered = REVERSE_NELUMBO ? rules.reverse() : RANDOM_NELUMBO ? rules.random() : rules;
+        if (PARALLEL_NELUMBO && rules.size() >= PARALLEL_RULES_THRESHOLD) {
+            result = inferRulesParallel(ordered.asList(), context, result);
             if (result.hasStackOverflow()) {
                 return result;
             }
+        } else {
+            for (Rule rule : ordered) {
+                InferResult ruleResult = infer(rule, context);
+                if (ruleResult == null) {
+                    continue;
+                } else if (ruleResult.hasStackOverflow()) {
+                    return ruleResult;
+                }
+                result = rule.combine(this, context, ruleResult, result);
+            }
         }
         if (typeArgs.isEmpty()) {
             return result;
@@ -438,6 +560,60 @@ public class Predicate extends Node {
         }
     }
 
+    /**
+     * Infers the rules in parallel and combines their results in rule order, so the outcome (including stack
+     * overflows and inconsistencies) is the same as that of the sequential loop.
+     */
+    private InferResult inferRulesParallel(List<Rule> rules, InferContext context, InferResult result) {
+        int size = rules.size();
+        InferResult[] ruleResults = new InferResult[size];
+        RuntimeException[] exceptions = new RuntimeException[size];
+        Runnable[] tasks = new Runnable[size];
+        for (int i = 0; i < size; i++) {
+            int r = i;
+            tasks[i] = () -> {
+                try {
+                    ruleResults[r] = infer(rules.get(r), context);
+                } catch (RuntimeException e) {
+                    exceptions[r] = e;
+                }
+            };
+        }
+        context.knowledgebase().parallel(tasks);
+        for (int i = 0; i < size; i++) {
+            if (exceptions[i] != null) {
+                throw exceptions[i];
+            } else if (ruleResults[i] != null) {
+                if (ruleResults[i].hasStackOverflow()) {
+                    return ruleResults[i];
+                }
+                result = rules.get(i).combine(this, context, ruleResults[i], result);
+            }
+        }
+        return result;
+    }
+
+    private InferResult infer(Rule rule, InferContext context) {
+        KnowledgeBase knowledgebase = context.knowledgebase();
+        knowledgebase.checkLimits();
+        Profiler profiler = knowledgebase.profiler();
+        long start = profiler != null ? profiler.enter() : 0;
+        InferResult ruleResult = null;
+        try {
+            ruleResult = rule.infer(this, context);
+        } finally {
+            if (profiler != null) {
+                profiler.exit(rule, start, ruleResult != null && !ruleResult.hasStackOverflow() //
+                        ? ruleResult.facts().size()
+                        : 0);
+            }
+        }
+        knowledgebase.ruleApplied(ruleResult != null && !ruleResult.hasStackOverflow() //
+                ? ruleResult.facts().size()
+                : 0);
+        return ruleResult;
+    }
+
     public boolean isFact() {
         return Type.FACT_TYPE.isAssignableFrom(type());
     }
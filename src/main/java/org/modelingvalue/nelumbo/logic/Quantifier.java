@@ -57,4 +57,14 @@ public abstract class Quantifier extends CompoundPredicate {
 
     protected abstract InferResult resolve(InferContext context, InferResult predResult);
 
+    @Override
+    protected final Solutions solutions(InferContext context) {
+        return Solutions.of(resolve(context));
+    }
+
+    @Override
+    public boolean hasIncrementalSolutions() {
+        return false;
+    }
+
 }
@@ -28,6 +28,7 @@ import org.modelingvalue.nelumbo.ConstructionReason;
 import org.modelingvalue.nelumbo.Evaluatable;
 import org.modelingvalue.nelumbo.KnowledgeBase;
 import org.modelingvalue.nelumbo.NelumboConstructor;
+import org.modelingvalue.nelumbo.NelumboEvents;
 import org.modelingvalue.nelumbo.Node;
 import org.modelingvalue.nelumbo.NodeInfo;
 import org.modelingvalue.nelumbo.lang.Variable;
@@ -163,12 +164,19 @@ public final class Query extends Node implements Evaluatable {
     public void evaluate(KnowledgeBase knowledgeBase, ParseExceptionHandler handler) throws ParseException {
         Predicate predicate = predicate();
         InferResult found;
+        NelumboEvents.QueryEvaluate event = new NelumboEvents.QueryEvaluate();
+        event.begin();
         try {
-            found = predicate.infer().predicate(predicate);
+            found = predicate.infer(hasExpected() ? -1 : knowledgeBase.solutionLimit()).predicate(predicate);
         } catch (InconsistencyException ie) {
+            event.report(predicate, null);
             handler.addException(new ParseException(ie.getMessage(), predicate));
             return;
+        } catch (RuntimeException e) {
+            event.report(predicate, null); // timeouts and exhausted budgets are the slow queries worth recording
+            throw e;
         }
+        event.report(predicate, found);
         inferResult = found;
         if (hasExpected()) {
             Predicate pred = predicate.setTypes();
@@ -161,10 +161,24 @@ public final class Rule extends Node implements Evaluatable {
     }
 
     public final InferResult biimply(Predicate predicate, InferContext context, InferResult result) {
+        InferResult ruleResult = infer(predicate, context);
+        if (ruleResult == null) {
+            return result;
+        } else if (ruleResult.hasStackOverflow()) {
+            return ruleResult;
+        }
+        return combine(predicate, context, ruleResult, result);
+    }
+
+    /**
+     * The result of this rule on its own, or null if the consequence does not match the predicate. Does not depend on
+     * the results of other rules, so the rules of a predicate can be inferred in parallel and combined afterwards.
+     */
+    public final InferResult infer(Predicate predicate, InferContext context) {
         Predicate consequence = consequence();
         Map<Variable, Object> binding = predicate.getBinding(consequence);
         if (binding == null) {
-            return result;
+            return null;
         }
         Predicate condition = condition();
         binding = getBinding().putAll(binding);
@@ -208,6 +222,16 @@ public final class Rule extends Node implements Evaluatable {
         if (context.trace() && !isSyntatic()) {
             System.out.println(context.prefix() + consequence + " " + ruleResult.predicate(consequence.setVariables()));
         }
+        return ruleResult;
+    }
+
+    /**
+     * Adds the result of this rule to the result of the rules before it, checking that they are consistent.
+     */
+    public final InferResult combine(Predicate predicate, InferContext context, InferResult ruleResult,
+            InferResult result) {
+        Set<Predicate> facts = ruleResult.facts(), falsehoods = ruleResult.falsehoods();
+        boolean completeFacts = ruleResult.completeFacts(), completeFalsehoods = ruleResult.completeFalsehoods();
         for (Predicate fact : result.facts()) {
             if (falsehoods.contains(fact) || (completeFacts && //
                     biimply(fact, context, fact.unknown()).isFalseCC())) {
@@ -0,0 +1,143 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo.logic;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.modelingvalue.collections.Set;
+
+/**
+ * The facts of a predicate, enumerated on demand. Every {@link #advance()} performs one step of the inference and
+ * emits the facts it found, so a consumer that stops early (a limit, the first solution, an existence check) also stops
+ * the inference. After the last fact {@link #result()} equals the result of inferring the predicate as a whole, before
+ * that it is the (incomplete) result of the steps taken so far.
+ * <p>
+ * This is a first step: only compound predicates enumerate incrementally, one entry of their frontier per step and
+ * level by level, so the levels after the one that yields the last fact needed are not resolved. A step itself, and
+ * so the rules and the fact relation of a single predicate, is still inferred as a whole.
+ */
+public abstract class Solutions implements Iterator<Predicate> {
+
+    public static Solutions of(InferResult result) {
+        return new Solutions(result.predicate()) {
+            @Override
+            protected boolean advance() {
+                if (result.hasStackOverflow()) {
+                    overflow(result);
+                    return false;
+                }
+                for (Predicate fact : result.allFacts()) {
+                    emit(fact);
+                }
+                for (Predicate falsehood : result.allFalsehoods()) {
+                    falsehood(falsehood);
+                }
+                step(result.completeFacts(), result.completeFalsehoods(), result.cycles());
+                return false;
+            }
+
+            @Override
+            public InferResult result() {
+                return isExhausted() ? result : super.result();
+            }
+        };
+    }
+
+    private final Predicate             predicate;
+    private final ArrayDeque<Predicate> buffer             = new ArrayDeque<>();
+    private Set<Predicate>              facts              = Set.of();
+    private Set<Predicate>              falsehoods         = Set.of();
+    private Set<Predicate>              cycles             = Set.of();
+    private boolean                     completeFacts      = true;
+    private boolean                     completeFalsehoods = true;
+    private boolean                     exhausted;
+    private InferResult                 overflow;
+
+    protected Solutions(Predicate predicate) {
+        this.predicate = predicate;
+    }
+
+    /**
+     * Performs the next step of the inference, returns false if there are no more steps.
+     */
+    protected abstract boolean advance();
+
+    protected final void emit(Predicate fact) {
+        if (!facts.contains(fact)) {
+            facts = facts.add(fact);
+            buffer.add(fact);
+        }
+    }
+
+    protected final void falsehood(Predicate falsehood) {
+        falsehoods = falsehoods.add(falsehood);
+    }
+
+    protected final void step(boolean completeFacts, boolean completeFalsehoods, Set<Predicate> cycles) {
+        this.completeFacts &= completeFacts;
+        this.completeFalsehoods &= completeFalsehoods;
+        this.cycles = this.cycles.addAll(cycles);
+    }
+
+    protected final void overflow(InferResult overflow) {
+        this.overflow = overflow;
+    }
+
+    public Predicate predicate() {
+        return predicate;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (buffer.isEmpty() && !exhausted && overflow == null) {
+            exhausted = !advance();
+        }
+        return !buffer.isEmpty();
+    }
+
+    @Override
+    public Predicate next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return buffer.poll();
+    }
+
+    public boolean isExhausted() {
+        return exhausted || overflow != null;
+    }
+
+    public InferResult result() {
+        if (overflow != null) {
+            return overflow;
+        }
+        return InferResult.of(predicate, facts, completeFacts && exhausted, falsehoods,
+                completeFalsehoods && exhausted, cycles);
+    }
+
+    public Stream<Predicate> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, //
+                Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.ORDERED), false);
+    }
+
+}
@@ -92,7 +92,7 @@ public final class When extends BinaryPredicate {
     }
 
     @Override
-    protected boolean order(Predicate[] predicate) {
+    protected boolean order(Predicate[] predicate, InferContext context) {
         return false;
     }
 
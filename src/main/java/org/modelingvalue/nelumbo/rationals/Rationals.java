@@ -35,7 +35,7 @@ public final class Rationals extends Predicate {
         super(nodeInfo, args);
     }
 
-    @NelumboMethod
+    @NelumboMethod(context = false)
     protected InferResult add(Rational addend1, Rational addend2, Rational sum) {
         if (nrOfUnbound() > 1) {
             return unknown();
@@ -63,7 +63,7 @@ public final class Rationals extends Predicate {
         return unknown();
     }
 
-    @NelumboMethod
+    @NelumboMethod(context = false)
     protected InferResult mult(Rational factor1, Rational factor2, Rational product) {
         if (nrOfUnbound() > 1) {
             return unknown();
@@ -88,7 +88,7 @@ public final class Rationals extends Predicate {
         return unknown();
     }
 
-    @NelumboMethod
+    @NelumboMethod(context = false)
     protected InferResult gt(Rational left, Rational right) {
         if (nrOfUnbound() > 1) {
             return unknown();
@@ -103,7 +103,7 @@ public final class Rationals extends Predicate {
                 .compareTo(left.denominator().multiply(right.numerator())) > 0 ? factCC() : falsehoodCC();
     }
 
-    @NelumboMethod
+    @NelumboMethod(context = false)
     protected InferResult iir(NInteger numerator, NInteger denominator, Rational rational) {
         if (nrOfUnbound() > 2) {
             return unknown();
@@ -35,7 +35,7 @@ public final class Strings extends Predicate {
         super(nodeInfo, args);
     }
 
-    @NelumboMethod
+    @NelumboMethod(context = false)
     protected InferResult string_concat(NString addend1, NString addend2, NString sum) {
         if (nrOfUnbound() > 1) {
             return unknown();
@@ -57,7 +57,7 @@ public final class Strings extends Predicate {
         return unknown();
     }
 
-    @NelumboMethod
+    @NelumboMethod(context = false)
     protected InferResult string_length(NString string, NInteger length) {
         if (nrOfUnbound() > 1) {
             return unknown();
@@ -72,7 +72,7 @@ public final class Strings extends Predicate {
         return unknown();
     }
 
-    @NelumboMethod
+    @NelumboMethod(context = false)
     protected InferResult integer_string(NInteger integer, NString string) {
         if (nrOfUnbound() > 1) {
             return unknown();
@@ -24,6 +24,7 @@ import org.modelingvalue.collections.Entry;
 import org.modelingvalue.collections.List;
 import org.modelingvalue.collections.Map;
 import org.modelingvalue.nelumbo.KnowledgeBase;
+import org.modelingvalue.nelumbo.NelumboEvents;
 import org.modelingvalue.nelumbo.Node;
 import org.modelingvalue.nelumbo.lang.Type;
 import org.modelingvalue.nelumbo.lang.Variable;
@@ -93,6 +94,8 @@ public final class Parser implements ParseExceptionHandler {
     private ParserResult parse(ParserResult result) throws ParseException {
         this.result = result;
         knowledgeBase.setExceptionHandler(this);
+        NelumboEvents.ParseFile event = new NelumboEvents.ParseFile();
+        event.begin();
         try {
             Token token = tokenizerResult.first();
             ParseContext ctx = ParseContext.of(Type.DEFAULT_GROUP, Integer.MIN_VALUE, knowledgeBase.parseContext());
@@ -110,6 +113,7 @@ public final class Parser implements ParseExceptionHandler {
             return result;
         } finally {
             knowledgeBase.endParsing();
+            event.report(tokenizerResult.fileName(), result.roots().size(), result.exceptions().size());
             this.result = null;
             tokenizerResult.checkAssertions();
         }
@@ -108,6 +108,22 @@ public final class Token implements AstElement {
         }
     }
 
+    /**
+     * Clears the links and what a parse annotated, so that {@link Tokenizer#retokenize} can take this token into a new
+     * chain.
+     */
+    void reset() {
+        next = null;
+        previous = null;
+        nextAll = null;
+        previousAll = null;
+        state = null;
+        node = null;
+        isTextMatch = false;
+        isKeyword = false;
+        isConnected = false;
+    }
+
     public Token split(int i) {
         Token t1 = splitGet1(i);
         Token t2 = splitGet2(i);
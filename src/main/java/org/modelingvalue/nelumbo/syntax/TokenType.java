@@ -155,6 +155,15 @@ public enum TokenType {
         return new TokenMatcher(input);
     }
 
+    /**
+     * A matcher that starts at index from of the input, which must be the start of a token.
+     */
+    public static TokenMatcher getMatcher(String input, int from) {
+        TokenMatcher matcher = new TokenMatcher(input);
+        matcher.matcher.region(from, input.length());
+        return matcher;
+    }
+
     public static class TokenMatcher {
         private final Matcher matcher;
         private final int     inputLength;
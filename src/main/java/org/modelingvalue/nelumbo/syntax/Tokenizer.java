@@ -16,6 +16,8 @@
 
 package org.modelingvalue.nelumbo.syntax;
 
+import java.util.Arrays;
+
 import org.modelingvalue.collections.List;
 import org.modelingvalue.nelumbo.U;
 
@@ -32,38 +34,161 @@ public class Tokenizer {
     }
 
     public TokenizerResult tokenize() {
-        Token[] tokens = new Token[4];
-        addToken(tokens, TokenType.BEGINOFFILE, "", 0, 0, 0);
-        TokenType.TokenMatcher tokenMatcher = TokenType.getMatcher(input);
-        int line = 0;
-        int position = 0;
-        int index = 0;
-        StringBuilder previousVertical = new StringBuilder();
+        return lex(0, 0, 0, new Lexemes(), null, 0, 0);
+    }
+
+    /**
+     * The tokens of the input after replacing the characters from start to end (exclusive) of the previous input by
+     * text. Only the damaged region is matched again: from the token before the edit (or the first ERROR token, e.g. a
+     * quote that a later quote can turn into a string) until a token starts where an unchanged token of the previous
+     * input started. The tokens before the damaged region are taken over as they are, the ones after it too if the
+     * edit did not move them; otherwise they are moved, keeping their text. The previous result is consumed: its
+     * tokens are relinked into the new chain, so it must not be used afterwards.
+     */
+    public static TokenizerResult retokenize(TokenizerResult previous, int start, int end, String text) {
+        String old = previous.input();
+        String input = old.substring(0, start) + text + old.substring(end);
+        Tokenizer tokenizer = new Tokenizer(input, previous.fileName());
+        Lexemes lexemes = previous.lexemes;
+        if (lexemes == null || lexemes.size == 0) {
+            return tokenizer.tokenize();
+        }
+        int restart = Math.max(0, lexemes.indexAtOrBefore(start) - 1);
+        if (lexemes.firstError >= 0) {
+            restart = Math.min(restart, lexemes.firstError);
+        }
+        Lexemes result = new Lexemes();
+        for (int i = 0; i < restart; i++) {
+            result.add(lexemes.tokens[i]);
+        }
+        Token from = lexemes.tokens[restart];
+        int delta = text.length() - (end - start);
+        return tokenizer.lex(from.index(), from.line(), from.position(), result, lexemes, start + text.length(), delta);
+    }
+
+    /**
+     * Matches tokens from index from, at line and position. With previous lexemes, matching stops at the first token
+     * at or after resync (in the new input) that starts where a previous lexeme started, shifted by delta; the rest is
+     * taken over.
+     */
+    private TokenizerResult lex(int from, int line, int position, Lexemes lexemes, Lexemes previous, int resync,
+            int delta) {
+        TokenType.TokenMatcher tokenMatcher = TokenType.getMatcher(input, from);
+        int index = from;
         while (tokenMatcher.hasMore()) {
+            if (previous != null && index >= resync) {
+                int i = previous.indexOf(index - delta);
+                if (i >= 0) {
+                    takeOver(lexemes, previous, i, line, position, delta);
+                    break;
+                }
+            }
             String text = tokenMatcher.text();
-            TokenType type = tokenMatcher.type();
-            addToken(tokens, type, text, line, position, index);
+            lexemes.add(new Token(tokenMatcher.type(), text, line, position, index, fileName));
             int lineIncr = U.numNewLines(text);
-            if (lineIncr <= 0) {
-                previousVertical.setLength(0);
-            } else {
+            if (lineIncr > 0) {
                 line += lineIncr;
                 position = 0;
-                if (type.isLayout() && (previousVertical.isEmpty() || previousVertical.toString().contains(text))) {
-                    previousVertical.append(text);
-                } else {
-                    previousVertical.setLength(0);
-                }
             }
             index += text.length();
             position += U.lastLineLength(text);
         }
-        addToken(tokens, TokenType.ENDOFFILE, "", line, position, index);
-        return new TokenizerResult(fileName, input, tokens);
+        return tokens(lexemes);
+    }
+
+    /**
+     * Adds the previous lexemes from index from, the first of which now starts at line and position. Only the tokens
+     * on its line move within their line.
+     */
+    private void takeOver(Lexemes lexemes, Lexemes previous, int from, int line, int position, int delta) {
+        Token first = previous.tokens[from];
+        int lineDelta = line - first.line();
+        int positionDelta = position - first.position();
+        boolean moved = delta != 0 || lineDelta != 0 || positionDelta != 0;
+        for (int i = from; i < previous.size; i++) {
+            Token token = previous.tokens[i];
+            if (moved) {
+                int tokenPosition = token.line() == first.line() ? token.position() + positionDelta : token.position();
+                token = new Token(token.type(), token.text(), token.line() + lineDelta, tokenPosition,
+                        token.index() + delta, fileName);
+            }
+            lexemes.add(token);
+        }
+    }
+
+    private TokenizerResult tokens(Lexemes lexemes) {
+        Token[] tokens = new Token[4];
+        addToken(tokens, new Token(TokenType.BEGINOFFILE, "", 0, 0, 0, fileName));
+        int line = 0;
+        int position = 0;
+        int index = 0;
+        for (int i = 0; i < lexemes.size; i++) {
+            Token token = lexemes.tokens[i];
+            token.reset();
+            addToken(tokens, token);
+        }
+        if (lexemes.size > 0) {
+            Token last = lexemes.tokens[lexemes.size - 1];
+            int lineIncr = U.numNewLines(last.text());
+            line = last.line() + lineIncr;
+            position = (lineIncr > 0 ? 0 : last.position()) + U.lastLineLength(last.text());
+            index = last.indexEnd();
+        }
+        addToken(tokens, new Token(TokenType.ENDOFFILE, "", line, position, index, fileName));
+        return new TokenizerResult(fileName, input, tokens, lexemes);
     }
 
-    private void addToken(Token[] tokens, TokenType type, String text, int line, int position, int index) {
-        Token token = new Token(type, text, line, position, index, fileName);
+    /**
+     * Every matched token, in order, before the parser relinks them: what a later edit needs to retokenize.
+     */
+    private static final class Lexemes {
+
+        private Token[] tokens     = new Token[64];
+        private int     size;
+        private int     firstError = -1;
+
+        private void add(Token token) {
+            if (size == tokens.length) {
+                tokens = Arrays.copyOf(tokens, size * 2);
+            }
+            if (firstError < 0 && token.type() == TokenType.ERROR) {
+                firstError = size;
+            }
+            tokens[size++] = token;
+        }
+
+        /** The index of the lexeme starting at start, or -1. */
+        private int indexOf(int start) {
+            int i = search(start);
+            return i >= 0 ? i : -1;
+        }
+
+        /** The index of the last lexeme starting at or before index (0 if there is none). */
+        private int indexAtOrBefore(int index) {
+            int i = search(index);
+            return i >= 0 ? i : Math.max(0, -i - 2);
+        }
+
+        /** Like {@link Arrays#binarySearch(int[], int)} on the start indexes of the lexemes. */
+        private int search(int index) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int start = tokens[mid].index();
+                if (start < index) {
+                    low = mid + 1;
+                } else if (start > index) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+
+    private void addToken(Token[] tokens, Token token) {
         if (tokens[FIRST_ALL] == null) {
             tokens[FIRST_ALL] = token;
         } else {
@@ -94,11 +219,17 @@ public class Tokenizer {
         private final String  fileName;
         private final String  input;
         private final Token[] tokens;
+        private final Lexemes lexemes;
 
         public TokenizerResult(String fileName, String input, Token[] tokens) {
+            this(fileName, input, tokens, null);
+        }
+
+        private TokenizerResult(String fileName, String input, Token[] tokens, Lexemes lexemes) {
             this.fileName = fileName;
             this.input = input;
             this.tokens = tokens;
+            this.lexemes = lexemes;
             checkAssertions();
         }
 
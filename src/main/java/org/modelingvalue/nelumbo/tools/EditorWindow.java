@@ -17,6 +17,7 @@
 package org.modelingvalue.nelumbo.tools;
 
 import org.modelingvalue.collections.List;
+import org.modelingvalue.nelumbo.Checkpoints;
 import org.modelingvalue.nelumbo.Evaluatable;
 import org.modelingvalue.nelumbo.KnowledgeBase;
 import org.modelingvalue.nelumbo.Node;
@@ -92,6 +93,7 @@ public class EditorWindow extends WindowAdapter
     private KnowledgeBaseViewerDialog        knowledgeBaseViewerDialog;
     private volatile TokenizerResult         lastTokenizerResult;
     private volatile ParserResult            lastParserResult;
+    private Checkpoints<Outcome>             checkpoints;
     private Set<String>                      currentImports        = new HashSet<>(); // Tracks current editor imports
     private int                              currentUnderlineStart = -1;              // Start index of current
                                                                                       // underline (-1 if none)
@@ -1242,7 +1244,7 @@ public class EditorWindow extends WindowAdapter
             // Phase 4: Compute results
             ArrayList<Highlight> textHighlights = new ArrayList<>();
             ArrayList<Highlight> messageHighlights = new ArrayList<>();
-            String messagesText = computeResults(result, textHighlights, messageHighlights);
+            String messagesText = computeResults(result, text, textHighlights, messageHighlights);
 
             if (!refreshRequested) {
                 // Phase 5: Apply all post-compute UI updates on EDT
@@ -1263,9 +1265,10 @@ public class EditorWindow extends WindowAdapter
     /**
      * Computes evaluation results on the worker thread without touching Swing
      * components. Returns the messages text; populates textHighlights and
-     * messageHighlights.
+     * messageHighlights. The roots before the last edit are not evaluated again: the knowledge base is restored to
+     * the checkpoint after the last of them and their outcomes are reused.
      */
-    private String computeResults(ParserResult result, ArrayList<Highlight> textHighlights,
+    private String computeResults(ParserResult result, String text, ArrayList<Highlight> textHighlights,
             ArrayList<Highlight> messageHighlights) {
         List<ParseException> exceptions = result.exceptions();
         int totalLines = result.getTokenizerResult().lastAll().lastLine() + 1;
@@ -1277,20 +1280,17 @@ public class EditorWindow extends WindowAdapter
         ArrayList<int[]> pendingMessageHighlights = new ArrayList<>();
         ArrayList<String> pendingMessageHighlightErrors = new ArrayList<>();
 
+        Checkpoints<Outcome> next = new Checkpoints<>(knowledgeBase, text, knowledgeBase.snapshot());
+        List<Node> roots = result.roots();
+        int resumed = next.resume(checkpoints, knowledgeBase, roots);
         ParserResult throwing = new ParserResult(null, true);
-        for (Node root : result.roots()) {
+        for (int i = 0; i < roots.size(); i++) {
+            Node root = roots.get(i);
+            Outcome outcome = null;
             if (root instanceof Evaluatable eval) {
-                ParseException pe = null;
-                String mess = null;
-                try {
-                    eval.evaluate(knowledgeBase, throwing);
-                } catch (ParseException exc) {
-                    pe = exc;
-                    mess = pe.getShortMessage();
-                }
-                if (eval instanceof Query query && query.inferResult() != null) {
-                    mess = query.inferResult().toString();
-                }
+                outcome = i < resumed ? next.outcome(i) : evaluate(eval, throwing);
+                ParseException pe = outcome.exception();
+                String mess = outcome.message();
                 if (mess != null) {
                     int line = eval.lastToken().line();
                     if (line >= 0 && line < totalLines) {
@@ -1298,15 +1298,18 @@ public class EditorWindow extends WindowAdapter
                     }
                     if (pe != null) {
                         textHighlights.add(new Highlight(pe.index(), pe.length(), pe.getShortMessage()));
-                        if (eval instanceof Query query && query.inferResult() != null && line >= 0
-                                && line < totalLines) {
+                        if (outcome.inferred() && line >= 0 && line < totalLines) {
                             pendingMessageHighlights.add(new int[]{line, mess.length()});
                             pendingMessageHighlightErrors.add(pe.getShortMessage());
                         }
                     }
                 }
             }
+            if (i >= resumed) {
+                next.record(root, knowledgeBase, outcome);
+            }
         }
+        checkpoints = next;
         for (ParseException pe : exceptions) {
             int line = pe.line();
             if (line >= 0 && line < totalLines) {
@@ -1396,6 +1399,26 @@ public class EditorWindow extends WindowAdapter
     private record Highlight(int index, int length, String error) {
     }
 
+    /** What evaluating one root gave: its message line, the exception if it failed, and whether it inferred a result. */
+    private record Outcome(String message, ParseException exception, boolean inferred) {
+    }
+
+    private Outcome evaluate(Evaluatable eval, ParserResult throwing) {
+        ParseException pe = null;
+        String mess = null;
+        try {
+            eval.evaluate(knowledgeBase, throwing);
+        } catch (ParseException exc) {
+            pe = exc;
+            mess = pe.getShortMessage();
+        }
+        boolean inferred = eval instanceof Query query && query.inferResult() != null;
+        if (inferred) {
+            mess = ((Query) eval).inferResult().toString();
+        }
+        return new Outcome(mess, pe, inferred);
+    }
+
     private void setHighlight(JTextPane pane, int index, int length, String message, DefaultHighlightPainter painter) {
         try {
             pane.getHighlighter().addHighlight(index, index + length, painter);
@@ -30,16 +30,13 @@ import javax.swing.table.DefaultTableModel;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
 
-import org.modelingvalue.collections.Entry;
 import org.modelingvalue.collections.List;
-import org.modelingvalue.collections.Map;
 import org.modelingvalue.collections.Set;
 import org.modelingvalue.nelumbo.AstElement;
 import org.modelingvalue.nelumbo.KnowledgeBase;
 import org.modelingvalue.nelumbo.Node;
 import org.modelingvalue.nelumbo.lang.Functor;
 import org.modelingvalue.nelumbo.lang.Transform;
-import org.modelingvalue.nelumbo.logic.InferResult;
 import org.modelingvalue.nelumbo.logic.Predicate;
 import org.modelingvalue.nelumbo.logic.Rule;
 
@@ -349,17 +346,14 @@ public class KnowledgeBaseViewerDialog extends JDialog {
         factTableModel.setRowCount(0);
         factList.clear();
 
-        Map<Predicate, InferResult> facts = kb.facts();
+        Set<Predicate> facts = kb.facts();
         if (facts == null) {
             return;
         }
 
-        for (Entry<Predicate, InferResult> entry : facts) {
-            // Only show facts that are confirmed true
-            if (entry.getValue() != null && entry.getValue().isTrueCC()) {
-                factList.add(entry.getKey());
-                factTableModel.addRow(new Object[]{truncate(entry.getKey().toString(), 120)});
-            }
+        for (Predicate fact : facts) {
+            factList.add(fact);
+            factTableModel.addRow(new Object[]{truncate(fact.toString(), 120)});
         }
     }
 
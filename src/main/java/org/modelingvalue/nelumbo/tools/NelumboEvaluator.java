@@ -26,6 +26,7 @@ import org.modelingvalue.nelumbo.Evaluatable;
 import org.modelingvalue.nelumbo.KnowledgeBase;
 import org.modelingvalue.nelumbo.NelumboTimeoutException;
 import org.modelingvalue.nelumbo.Node;
+import org.modelingvalue.nelumbo.Profiler;
 import org.modelingvalue.nelumbo.lang.Functor;
 import org.modelingvalue.nelumbo.lang.Type;
 import org.modelingvalue.nelumbo.lang.Variable;
@@ -66,14 +67,28 @@ public final class NelumboEvaluator {
 
     /** {@code preamble} (e.g. import statements) is evaluated first as a separate source, so the document's line numbers are unaffected. */
     public static EvalResult evaluate(String source, String name, long deadlineMs, String preamble) {
+        return evaluate(source, name, deadlineMs, preamble, null);
+    }
+
+    /** A non-null {@code profiler} collects per-rule and per-functor statistics of the evaluation. */
+    public static EvalResult evaluate(String source, String name, long deadlineMs, String preamble, Profiler profiler) {
+        return evaluate(KnowledgeBase.BASE, source, name, deadlineMs, preamble, profiler);
+    }
+
+    /** Evaluates in a child of {@code base}, e.g. a knowledge base loaded with {@code KnowledgeBaseLoader}. */
+    public static EvalResult evaluate(KnowledgeBase base, String source, String name, long deadlineMs, String preamble,
+            Profiler profiler) {
         String src = source.endsWith("\n") ? source : source + "\n";
         List<Diagnostic> diagnostics = new ArrayList<>();
         List<QueryOutcome> queries = new ArrayList<>();
         List<java.util.Map<String, Object>> parseTree = new ArrayList<>();
-        KnowledgeBase evalKb = new KnowledgeBase(KnowledgeBase.BASE);
+        KnowledgeBase evalKb = new KnowledgeBase(base);
         if (deadlineMs > 0) {
             evalKb.setDeadlineNanos(System.nanoTime() + deadlineMs * 1_000_000L);
         }
+        if (profiler != null) {
+            evalKb.setProfiler(profiler);
+        }
         try {
             evalKb.run(() -> {
                 KnowledgeBase kb = KnowledgeBase.CURRENT.get();
@@ -0,0 +1,47 @@
+import   nelumbo.logic
+
+// Fact lookup with typed variables
+
+Person :: Object
+Animal :: Object
+Mammal :: Animal
+Bird   :: Animal
+Dog    :: Mammal
+Cat    :: Mammal
+Puppy  :: Dog
+
+FactType ::= owns(<Person>,<Animal>)
+
+Person ::= Ann, Bob, Cid
+Puppy  ::= Rex
+Dog    ::= Fido
+Cat    ::= Tom
+Bird   ::= Tweety
+
+Person p
+Animal a
+Mammal m
+Dog    d
+Puppy  u
+Cat    k
+
+fact owns(Ann, Rex),
+     owns(Ann, Tom),
+     owns(Ann, Tweety),
+     owns(Bob, Fido),
+     owns(Bob, Rex)
+
+owns(Ann, Tom)    ? [()][]
+owns(Bob, Tom)    ? [][()]
+
+owns(Ann, a)      ? [(a=Rex),(a=Tom),(a=Tweety)][..]
+owns(Ann, m)      ? [(m=Rex),(m=Tom)][..]
+owns(Ann, d)      ? [(d=Rex)][..]
+owns(Bob, d)      ? [(d=Fido),(d=Rex)][..]
+owns(Bob, u)      ? [(u=Rex)][..]
+owns(Bob, k)      ? [][..]
+owns(Cid, a)      ? [][..]
+
+owns(p, Rex)      ? [(p=Ann),(p=Bob)][..]
+owns(p, Tweety)   ? [(p=Ann)][..]
+owns(p, Fido)     ? [(p=Bob)][..]
@@ -61,3 +61,14 @@ a*11=110  ? [(a=10)][..]
 20/10=3   ? [][()]
 21/10=a   ? [][..]
 21/10=2   ? [][()]
+
+// Past the range of a long
+
+9223372036854775807+1=a              ? [(a=9223372036854775808)][..]
+-9223372036854775808-1=a             ? [(a=-9223372036854775809)][..]
+9223372036854775807*2=a              ? [(a=18446744073709551614)][..]
+-9223372036854775808*-1=a            ? [(a=9223372036854775808)][..]
+--9223372036854775808=a              ? [(a=9223372036854775808)][..]
+-a=-9223372036854775808              ? [(a=9223372036854775808)][..]
+9223372036854775808-1=9223372036854775807 ? [()][]
+-9223372036854775809+1=a             ? [(a=-9223372036854775808)][..]
@@ -0,0 +1,134 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.modelingvalue.collections.List;
+import org.modelingvalue.nelumbo.Checkpoints;
+import org.modelingvalue.nelumbo.Evaluatable;
+import org.modelingvalue.nelumbo.KnowledgeBase;
+import org.modelingvalue.nelumbo.KnowledgeBase.Snapshot;
+import org.modelingvalue.nelumbo.Node;
+import org.modelingvalue.nelumbo.syntax.ParseException;
+import org.modelingvalue.nelumbo.syntax.Parser;
+import org.modelingvalue.nelumbo.syntax.ParserResult;
+import org.modelingvalue.nelumbo.syntax.Tokenizer;
+
+public class CheckpointsTest extends NelumboTestBase {
+
+    static {
+        setProp("PARALLEL_COLLECTIONS", "false");
+        setProp("REVERSE_NELUMBO", "false");
+        setProp("RANDOM_NELUMBO", "false");
+        setProp("PARALLEL_NELUMBO", "false");
+        setProp("PLAN_NELUMBO", "false");
+        setProp("INTERN_NELUMBO", "false");
+        setProp("TRACE_NELUMBO", "false");
+        setProp("TRACE_SYNTATIC", "false");
+        setProp("VERBOSE_TESTS", "false");
+    }
+
+    private static final String PEOPLE = """
+            import nelumbo.logic
+
+            Person   :: Object
+
+            FactType ::= pc(<Person>,<Person>)
+
+            Person   ::= Ann, Bob, Cid, Dan
+
+            Person x
+
+            fact pc(Ann, Bob)
+            pc(Ann, x) ? [(x=Bob)][..]
+            fact pc(Bob, Cid)
+            pc(Bob, x) ? [(x=Cid)][..]
+            """;
+
+    private static final String EDITED_FACT = PEOPLE.replace("fact pc(Bob, Cid)", "fact pc(Bob, Dan)")//
+            .replace("pc(Bob, x) ? [(x=Cid)][..]", "pc(Bob, x) ? [(x=Dan)][..]");
+
+    @Test
+    public void editResumesAfterTheUnchangedFacts() {
+        Checkpoints<String> first = evaluate(PEOPLE, null);
+        assertEquals(0, first.resumed());
+        String edited = PEOPLE.replace("pc(Bob, x) ? [(x=Cid)][..]", "pc(x, Cid) ? [(x=Bob)][..]");
+        Checkpoints<String> second = evaluate(edited, first);
+        assertEquals(first.size() - 1, second.resumed());
+        assertSame(first.outcome(first.size() - 3), second.outcome(second.size() - 3));
+        assertNull(second.outcome(second.size() - 1));
+    }
+
+    @Test
+    public void editedFactsAreEvaluatedAgain() {
+        Checkpoints<String> first = evaluate(PEOPLE, null);
+        Checkpoints<String> second = evaluate(EDITED_FACT, first);
+        assertEquals(first.size() - 2, second.resumed());
+        assertNull(second.outcome(second.size() - 1));
+    }
+
+    @Test
+    public void snapshotsWithTheSameFactsInferLike() {
+        Snapshot people = evaluated(PEOPLE);
+        assertTrue(people.infersLike(evaluated(PEOPLE)));
+        assertFalse(people.infersLike(evaluated(EDITED_FACT)));
+    }
+
+    private static Snapshot evaluated(String document) {
+        KnowledgeBase knowledgeBase = new KnowledgeBase(KnowledgeBase.BASE);
+        return KnowledgeBase.CURRENT.get(knowledgeBase, () -> {
+            try {
+                new Parser(new Tokenizer(document, "people.nl").tokenize()).parseEvaluate();
+            } catch (ParseException e) {
+                throw new AssertionError(e);
+            }
+            return knowledgeBase.snapshot();
+        });
+    }
+
+    /** Evaluates the document like an editor does, the outcome of a root is the message of its failure, if any. */
+    private static Checkpoints<String> evaluate(String document, Checkpoints<String> previous) {
+        KnowledgeBase knowledgeBase = new KnowledgeBase(KnowledgeBase.BASE);
+        return KnowledgeBase.CURRENT.get(knowledgeBase, () -> {
+            ParserResult parsed = new Parser(new Tokenizer(document, "people.nl").tokenize()).parseNonThrowing();
+            assertEquals(List.of(), parsed.exceptions());
+            Checkpoints<String> checkpoints = new Checkpoints<>(KnowledgeBase.BASE, document,
+                    knowledgeBase.snapshot());
+            List<Node> roots = parsed.roots();
+            ParserResult throwing = new ParserResult(null, true);
+            for (int i = checkpoints.resume(previous, knowledgeBase, roots); i < roots.size(); i++) {
+                String outcome = null;
+                if (roots.get(i) instanceof Evaluatable eval) {
+                    try {
+                        eval.evaluate(knowledgeBase, throwing);
+                    } catch (ParseException e) {
+                        outcome = e.getMessage();
+                    }
+                }
+                checkpoints.record(roots.get(i), knowledgeBase, outcome);
+            }
+            return checkpoints;
+        });
+    }
+
+}
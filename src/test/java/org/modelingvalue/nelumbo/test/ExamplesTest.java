@@ -24,6 +24,9 @@ public class ExamplesTest extends NelumboTestBase {
         setProp("PARALLEL_COLLECTIONS", "false");
         setProp("REVERSE_NELUMBO", "false");
         setProp("RANDOM_NELUMBO", "true");
+        setProp("PARALLEL_NELUMBO", "false");
+        setProp("PLAN_NELUMBO", "false");
+        setProp("INTERN_NELUMBO", "false");
         setProp("TRACE_NELUMBO", "false");
         setProp("TRACE_SYNTATIC", "false");
         setProp("VERBOSE_TESTS", "false");
@@ -0,0 +1,132 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.modelingvalue.nelumbo.KnowledgeBase;
+import org.modelingvalue.nelumbo.NelumboConstants;
+import org.modelingvalue.nelumbo.Node;
+import org.modelingvalue.nelumbo.logic.Query;
+import org.modelingvalue.nelumbo.syntax.ParseException;
+import org.modelingvalue.nelumbo.syntax.Parser;
+
+/**
+ * Runs the .nl suites with one inference mode switched on and compares the query results with those of the default
+ * mode. The mode flags are static finals that are read once, so every mode runs the suites in a JVM of its own (see
+ * {@link #main}).
+ */
+public class InferenceModesTest extends NelumboTestBase {
+
+    static {
+        setProp("PARALLEL_COLLECTIONS", "false");
+        setProp("REVERSE_NELUMBO", "false");
+        setProp("RANDOM_NELUMBO", "false");
+        setProp("PARALLEL_NELUMBO", "false");
+        setProp("PLAN_NELUMBO", "false");
+        setProp("INTERN_NELUMBO", "false");
+        setProp("TRACE_NELUMBO", "false");
+        setProp("TRACE_SYNTATIC", "false");
+        setProp("VERBOSE_TESTS", "false");
+    }
+
+    // The properties of every run: all modes off, except the one under test. The thresholds are lowered so the
+    // small suites do take the parallel paths, of the rules and of the frontier of compound predicates.
+    private static final List<String> PROPERTIES = List.of("PARALLEL_COLLECTIONS=false", "REVERSE_NELUMBO=false",
+            "RANDOM_NELUMBO=false", "PARALLEL_NELUMBO=false", "PLAN_NELUMBO=false", "INTERN_NELUMBO=false",
+            "TRACE_NELUMBO=false", "VERBOSE_TESTS=false", "PARALLEL_RULES_THRESHOLD=2", "PARALLEL_FRONTIER_THRESHOLD=2");
+
+    private static String defaultResults;
+
+    @ParameterizedTest
+    @ValueSource(strings = { "PARALLEL_NELUMBO", "PLAN_NELUMBO", "INTERN_NELUMBO" })
+    public void sameResultsAsDefaultMode(String mode) throws IOException, InterruptedException {
+        assertEquals(defaultResults(), results(mode + "=true"), mode + " infers differently");
+    }
+
+    private static synchronized String defaultResults() throws IOException, InterruptedException {
+        if (defaultResults == null) {
+            defaultResults = results();
+        }
+        return defaultResults;
+    }
+
+    private static String results(String... mode) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.startsWith("--")) { // --enable-preview, --add-opens and the like
+                command.add(argument);
+            }
+        }
+        for (String property : PROPERTIES) {
+            command.add("-D" + property);
+        }
+        for (String property : mode) {
+            command.add("-D" + property);
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(InferenceModesTest.class.getName());
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals(0, process.waitFor(), () -> "the suites failed:\n" + output);
+        return output;
+    }
+
+    /**
+     * Prints the result of every query of the suites, in order; the mode is set by the system properties.
+     */
+    public static void main(String[] args) {
+        boolean ok = true;
+        for (String resource : TESTS) {
+            ok &= print(NelumboConstants.NELUMBO_TESTS + resource);
+        }
+        for (String resource : EXAMPLES) {
+            ok &= print(NelumboConstants.NELUMBO_EXAMPLES + resource);
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static boolean print(String resource) {
+        boolean[] ok = {true};
+        KnowledgeBase.BASE.run(() -> {
+            System.out.println(resource);
+            try {
+                for (Node root : Parser.parse(InferenceModesTest.class, resource)) {
+                    if (root instanceof Query query && query.inferResult() != null) {
+                        System.out.println("    " + query.predicate() + " " + query.inferResult());
+                    }
+                }
+            } catch (ParseException e) {
+                System.out.println("    " + e.getMessage());
+                ok[0] = false;
+            }
+        });
+        return ok[0];
+    }
+
+}
@@ -0,0 +1,297 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.modelingvalue.collections.Set;
+import org.modelingvalue.nelumbo.Budget;
+import org.modelingvalue.nelumbo.Governor;
+import org.modelingvalue.nelumbo.KnowledgeBase;
+import org.modelingvalue.nelumbo.MemoTable;
+import org.modelingvalue.nelumbo.integers.NInteger;
+import org.modelingvalue.nelumbo.lang.Functor;
+import org.modelingvalue.nelumbo.logic.InferResult;
+import org.modelingvalue.nelumbo.logic.Predicate;
+import org.modelingvalue.nelumbo.syntax.ParseException;
+import org.modelingvalue.nelumbo.syntax.Parser;
+import org.modelingvalue.nelumbo.syntax.Tokenizer;
+
+public class MemoTableTest extends NelumboTestBase {
+
+    static {
+        setProp("PARALLEL_COLLECTIONS", "false");
+        setProp("REVERSE_NELUMBO", "false");
+        setProp("RANDOM_NELUMBO", "false");
+        setProp("PARALLEL_NELUMBO", "false");
+        setProp("PLAN_NELUMBO", "false");
+        setProp("INTERN_NELUMBO", "false");
+        setProp("TRACE_NELUMBO", "false");
+        setProp("TRACE_SYNTATIC", "false");
+        setProp("VERBOSE_TESTS", "false");
+    }
+
+    private static final String PEOPLE = """
+            import nelumbo.logic
+
+            Person   :: Object
+
+            FactType ::= pc(<Person>,<Person>)
+            FactType ::= fr(<Person>,<Person>)
+
+            Person   ::= Ann, Bob, Cid, Dan, Eve
+
+            fact pc(Ann, Bob),
+                 pc(Bob, Cid),
+                 pc(Cid, Dan),
+                 pc(Dan, Eve),
+                 fr(Ann, Cid),
+                 fr(Bob, Dan)
+            """;
+
+    @Test
+    public void countsHitsAndMisses() {
+        withFacts(facts -> {
+            MemoTable table = new MemoTable(null, Long.MAX_VALUE);
+            Predicate fact = facts.get(0);
+            assertNull(table.get(fact));
+            table.put(fact, fact.factCC());
+            assertEquals(fact.factCC(), table.get(fact));
+            assertNotNull(table.get(fact));
+            assertEquals(2, table.hits());
+            assertEquals(1, table.misses());
+            assertEquals(0, table.evictions());
+            assertEquals(1, table.size());
+        });
+    }
+
+    @Test
+    public void staysWithinBudget() {
+        withFacts(facts -> {
+            long entry = entryBytes(facts.get(0));
+            MemoTable table = new MemoTable(null, 3 * entry);
+            for (Predicate fact : facts) {
+                table.put(fact, fact.factCC());
+                assertTrue(table.bytes() <= table.budget(), () -> table.toString());
+            }
+            assertEquals(3, table.size());
+            assertEquals(facts.size() - 3, table.evictions());
+        });
+    }
+
+    @Test
+    public void clockKeepsUsedEntries() {
+        withFacts(facts -> {
+            Predicate used = facts.get(0), unused = facts.get(1), added = facts.get(2);
+            MemoTable table = new MemoTable(null, 2 * entryBytes(used));
+            table.put(used, used.factCC());
+            table.put(unused, unused.factCC());
+            for (int i = 0; i < 3; i++) {
+                table.get(used);
+            }
+            table.put(added, added.factCC());
+            assertEquals(1, table.evictions());
+            assertNotNull(table.get(used));
+            assertNull(table.get(unused));
+            assertNotNull(table.get(added));
+        });
+    }
+
+    @Test
+    public void childTablesKeepMemoizingWhenTheParentFillsUp() {
+        withFacts(facts -> {
+            long entry = entryBytes(facts.get(0));
+            MemoTable parent = new MemoTable(null, 3 * entry);
+            for (Predicate fact : facts.subList(0, 2)) {
+                parent.put(fact, fact.factCC());
+            }
+            MemoTable child = new MemoTable(parent);
+            assertEquals(MemoTable.MAX_LOGIC_MEMOIZ_BYTES, child.budget());
+            for (Predicate fact : facts) {
+                parent.put(fact, fact.factCC());
+            }
+            assertTrue(parent.evictions() > 0, parent::toString);
+            for (Predicate fact : facts.subList(0, 3)) {
+                child.put(fact, fact.factCC());
+            }
+            assertEquals(0L, child.evictions(), child::toString);
+            for (Predicate fact : facts.subList(0, 3)) {
+                assertNotNull(child.get(fact), fact.toString());
+            }
+        });
+    }
+
+    @Test
+    public void invalidateKeepsIndependentEntries() {
+        withFacts(facts -> {
+            MemoTable table = new MemoTable(null, Long.MAX_VALUE);
+            for (Predicate fact : facts) {
+                table.put(fact, fact.factCC());
+            }
+            long entry = entryBytes(facts.get(0));
+            Functor pc = functor(facts, "pc");
+            table.invalidate(Set.of(pc));
+            for (Predicate fact : facts) {
+                if (fact.functor().equals(pc)) {
+                    assertNull(table.get(fact), fact.toString());
+                } else {
+                    assertNotNull(table.get(fact), fact.toString());
+                }
+            }
+            assertEquals(4, table.invalidations());
+            assertEquals(2, table.size());
+            assertEquals(2 * entry, table.bytes());
+        });
+    }
+
+    @Test
+    public void invalidateReleasesResults() {
+        withFacts(facts -> {
+            MemoTable table = new MemoTable(null, Long.MAX_VALUE);
+            Predicate fact = facts.get(0);
+            WeakReference<InferResult> result = put(table, fact);
+            table.invalidate(Set.of(fact.functor()));
+            assertNull(table.get(fact));
+            assertEquals(0, table.bytes());
+            for (int i = 0; i < 20 && result.get() != null; i++) {
+                System.gc();
+            }
+            assertNull(result.get(), "the invalidated result is still reachable");
+        });
+    }
+
+    @Test
+    public void governorIsChargedForStoredEntries() {
+        withFacts(facts -> {
+            long entry = entryBytes(facts.get(0));
+            Governor governor = new Governor(new Budget(0, 0, Long.MAX_VALUE));
+            MemoTable table = new MemoTable(null, 3 * entry);
+            table.setGovernor(governor);
+            for (Predicate fact : facts) {
+                table.put(fact, fact.factCC());
+                assertEquals(table.bytes(), governor.bytes(), table.toString());
+            }
+            table.put(facts.get(5), facts.get(5).factCC());
+            assertEquals(table.bytes(), governor.bytes(), table.toString());
+            table.invalidate(Set.of(functor(facts, "pc"), functor(facts, "fr")));
+            assertEquals(0, table.size());
+            assertEquals(0, governor.bytes());
+        });
+    }
+
+    private static WeakReference<InferResult> put(MemoTable table, Predicate fact) {
+        InferResult result = InferResult.of(fact, Set.of(fact), true, Set.of(), true, Set.of());
+        table.put(fact, result);
+        return new WeakReference<>(result);
+    }
+
+    private static Functor functor(List<Predicate> facts, String name) {
+        for (Predicate fact : facts) {
+            if (fact.functor().name().startsWith(name)) {
+                return fact.functor();
+            }
+        }
+        throw new AssertionError("no " + name + " facts");
+    }
+
+    private static long entryBytes(Predicate fact) {
+        MemoTable table = new MemoTable(null, Long.MAX_VALUE);
+        table.put(fact, fact.factCC());
+        return table.bytes();
+    }
+
+    @Test
+    public void factsOfTheDeclarationInvalidateBoundFunctors() {
+        run(() -> {
+            KnowledgeBase knowledgeBase = KnowledgeBase.CURRENT.get();
+            // the condition of the rule has a bound copy of holds(<T>), with T bound to Integer, and the fact is added
+            // under the declaration
+            parseEvaluate("""
+                    import nelumbo.integers
+
+                    Type T
+
+                    FactType ::= holds(<T>)
+                    Boolean  ::= has(<Integer>)
+
+                    Integer i
+
+                    has(i) <=> i=1 & holds(2)
+
+                    fact holds(1)
+                    has(1) ? [][()]
+                    """);
+            Functor holds = knowledgeBase.factFunctor("holds");
+            Predicate one = knowledgeBase.relation(holds).facts().iterator().next();
+            Predicate two = (Predicate) one.set(0, NInteger.of(2L)).setFunctorOrType(holds);
+            assertTrue(holds == holds.declaration() && one.functor() != holds);
+            knowledgeBase.addFact(two);
+            parseEvaluate("has(1) ? [()][]\n");
+        });
+    }
+
+    @Test
+    public void fanOutStaysInItsKnowledgeBase() {
+        withFacts(facts -> {
+            KnowledgeBase base = KnowledgeBase.CURRENT.get();
+            Functor pc = base.factFunctor("pc");
+            base.fanOut(pc, 4);
+            KnowledgeBase one = new KnowledgeBase(base), two = new KnowledgeBase(base);
+            one.fanOut(pc, 0);
+            one.fanOut(pc, 2);
+            assertEquals(1.0, one.fanOut(pc));
+            assertEquals(4.0, two.fanOut(pc)); // the statistics of the base, not those of its sibling
+            assertEquals(4.0, base.fanOut(pc));
+            assertEquals(-1.0, base.fanOut(base.factFunctor("fr")));
+        });
+    }
+
+    private static void parseEvaluate(String source) {
+        try {
+            new Parser(new Tokenizer(source, "MemoTableTest").tokenize()).parseEvaluate();
+        } catch (ParseException e) {
+            fail(e);
+        }
+    }
+
+    private void withFacts(Consumer<List<Predicate>> test) {
+        run(() -> {
+            try {
+                new Parser(new Tokenizer(PEOPLE, "MemoTableTest").tokenize()).parseEvaluate();
+            } catch (ParseException e) {
+                fail(e);
+            }
+            List<Predicate> facts = new ArrayList<>();
+            for (Predicate fact : KnowledgeBase.CURRENT.get().facts()) {
+                facts.add(fact);
+            }
+            assertEquals(6, facts.size());
+            test.accept(facts);
+        });
+    }
+
+}
@@ -21,6 +21,13 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 import org.modelingvalue.nelumbo.tools.NelumboEvaluator;
 import org.modelingvalue.nelumbo.tools.NelumboEvaluator.EvalResult;
@@ -89,6 +96,38 @@ public class NelumboEvaluatorTest {
                 () -> "diagnostics: " + r.diagnostics());
     }
 
+    // fib(300) is 300 levels deep, far more than the MAX_LOGIC_DEPTH that fits on the stack of the workers
+    private static final String DEEP_FIB = FIB.replace("fib(5)=f    ? [(f=5)][..]",
+            "fib(300)=f  ? [(f=222232244629420445529739893461909967206666939096499764990979600)][..]");
+
+    @Test
+    public void deepRecursionOnSmallStack() throws IOException, InterruptedException {
+        // inference runs on the pool workers, whatever thread evaluates, so the whole JVM gets a small stack
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.startsWith("--")) { // --enable-preview, --add-opens and the like
+                command.add(argument);
+            }
+        }
+        command.add("-Xss256k");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(NelumboEvaluatorTest.class.getName());
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals(0, process.waitFor(), () -> "fib(300) failed on a small stack:\n" + output);
+    }
+
+    /**
+     * Evaluates fib(300), see {@link #deepRecursionOnSmallStack()}.
+     */
+    public static void main(String[] args) {
+        EvalResult result = NelumboEvaluator.evaluate(DEEP_FIB, "deep.nl", 0);
+        System.out.println(result.diagnostics());
+        System.exit(result.ok() && Boolean.TRUE.equals(result.queries().get(0).expectationMatched()) ? 0 : 1);
+    }
+
     @Test
     public void missingTrailingNewlineIsTolerated() {
         EvalResult r = NelumboEvaluator.evaluate("import  nelumbo.integers", "nonewline.nl", 0);
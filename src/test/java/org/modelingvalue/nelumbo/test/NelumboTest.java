@@ -24,6 +24,9 @@ public class NelumboTest extends NelumboTestBase {
         setProp("PARALLEL_COLLECTIONS", "false");
         setProp("REVERSE_NELUMBO", "false");
         setProp("RANDOM_NELUMBO", "true");
+        setProp("PARALLEL_NELUMBO", "false");
+        setProp("PLAN_NELUMBO", "false");
+        setProp("INTERN_NELUMBO", "false");
         setProp("TRACE_NELUMBO", "false");
         setProp("TRACE_SYNTATIC", "false");
         setProp("VERBOSE_TESTS", "false");
@@ -52,6 +55,11 @@ public class NelumboTest extends NelumboTestBase {
         testResource("logicTest.nl");
     }
 
+    @RepeatedTest(10)
+    public void factsTest() {
+        testResource("factsTest.nl");
+    }
+
     @RepeatedTest(10)
     public void integersTest() {
         testResource("integersTest.nl");
@@ -16,6 +16,8 @@
 
 package org.modelingvalue.nelumbo.test;
 
+import java.util.List;
+
 import org.modelingvalue.collections.Set;
 import org.modelingvalue.nelumbo.KnowledgeBase;
 import org.modelingvalue.nelumbo.NelumboConstants;
@@ -32,6 +34,13 @@ import static org.junit.jupiter.api.Assertions.fail;
 @SuppressWarnings("unused")
 public class NelumboTestBase {
 
+    // The .nl suites, relative to NelumboConstants.NELUMBO_TESTS and NelumboConstants.NELUMBO_EXAMPLES
+    static final List<String> TESTS    = List.of("langOnly.nl", "langTest.nl", "logicTest.nl", "factsTest.nl",
+            "integersTest.nl", "rationalsTest.nl", "stringsTest.nl", "collectionsTest.nl", "datetimeTest.nl");
+    static final List<String> EXAMPLES = List.of("friends.nl", "whoIs.nl", "family.nl", "queryOnly.nl",
+            "belasting.nl", "fibonacci.nl", "transformation.nl", "max.nl", "deHet.nl", "maxFib.nl", "scoping.nl",
+            "hidden.nl", "power.nl", "even.nl", "ternary.nl", "clubFees.nl");
+
     static void setProp(String name, String def) {
         String env = System.getenv(name);
         System.setProperty(name, env != null ? env : System.getProperty(name, def));
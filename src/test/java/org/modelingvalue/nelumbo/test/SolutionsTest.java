@@ -0,0 +1,152 @@
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+// (C) Copyright 2018-2026 Modeling Value Group B.V. (http://modelingvalue.org)                                        ~
+//                                                                                                                     ~
+// Licensed under the GNU Lesser General Public License v3.0 (the 'License'). You may not use this file except in      ~
+// compliance with the License. You may obtain a copy of the License at: https://choosealicense.com/licenses/lgpl-3.0  ~
+// Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on ~
+// an 'AS IS' BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the  ~
+// specific language governing permissions and limitations under the License.                                          ~
+//                                                                                                                     ~
+// Maintainers:                                                                                                        ~
+//     Wim Bast, Tom Brus                                                                                              ~
+//                                                                                                                     ~
+// Contributors:                                                                                                       ~
+//     Victor Lap                                                                                                      ~
+//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+package org.modelingvalue.nelumbo.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import org.junit.jupiter.api.Test;
+import org.modelingvalue.nelumbo.Budget;
+import org.modelingvalue.nelumbo.Evaluatable;
+import org.modelingvalue.nelumbo.KnowledgeBase;
+import org.modelingvalue.nelumbo.NelumboConstants;
+import org.modelingvalue.nelumbo.Node;
+import org.modelingvalue.nelumbo.logic.InferResult;
+import org.modelingvalue.nelumbo.logic.Predicate;
+import org.modelingvalue.nelumbo.logic.Query;
+import org.modelingvalue.nelumbo.logic.Solutions;
+import org.modelingvalue.nelumbo.syntax.ParseException;
+import org.modelingvalue.nelumbo.syntax.Parser;
+import org.modelingvalue.nelumbo.syntax.ParserResult;
+import org.modelingvalue.nelumbo.syntax.Tokenizer;
+
+/**
+ * Enumerating the solutions of a predicate to the end must give the result of inferring it, for every query of the
+ * .nl suites.
+ */
+public class SolutionsTest extends NelumboTestBase {
+
+    static {
+        setProp("PARALLEL_COLLECTIONS", "false");
+        setProp("REVERSE_NELUMBO", "false");
+        setProp("RANDOM_NELUMBO", "false");
+        setProp("PARALLEL_NELUMBO", "false");
+        setProp("PLAN_NELUMBO", "false");
+        setProp("INTERN_NELUMBO", "false");
+        setProp("TRACE_NELUMBO", "false");
+        setProp("TRACE_SYNTATIC", "false");
+        setProp("VERBOSE_TESTS", "false");
+    }
+
+    @Test
+    public void testsSolutionsAsInferred() {
+        for (String resource : TESTS) {
+            solutionsAsInferred(NelumboConstants.NELUMBO_TESTS + resource);
+        }
+    }
+
+    @Test
+    public void examplesSolutionsAsInferred() {
+        for (String resource : EXAMPLES) {
+            solutionsAsInferred(NelumboConstants.NELUMBO_EXAMPLES + resource);
+        }
+    }
+
+    // Bob knows Ann, Cid and Dan. Cid and Dan are solutions in the second level of the frontier, Ann only in the levels
+    // after it, which infer the descendants of Ann.
+    private static final String KNOWS = """
+            import nelumbo.logic
+
+            Person   :: Object
+
+            FactType ::= pc(<Person>,<Person>)
+            Boolean  ::= desc(<Person>,<Person>),
+                         knows(<Person>,<Person>)
+
+            Person   ::= Ann, Bob, Cid, Dan, Eve, Fay
+
+            Person x, y, z
+
+            desc(x,y)  <=> pc(x,y) | E[z](pc(x,z) & desc(z,y))
+            knows(x,y) <=> pc(x,y) | pc(y,x)
+
+            fact pc(Ann,Bob),
+                 pc(Bob,Cid),
+                 pc(Bob,Dan),
+                 pc(Cid,Dan),
+                 pc(Dan,Eve),
+                 pc(Eve,Fay)
+
+            knows(Bob,y) & (y=Cid | y=Dan | desc(y,z)) ?
+            """;
+
+    @Test
+    public void limitStopsBeforeTheRemainingLevels() {
+        run(() -> {
+            KnowledgeBase model = KnowledgeBase.CURRENT.get();
+            Predicate query = null;
+            try { // the query is not evaluated, so nothing of it is memoized in the model
+                ParserResult parsed = new Parser(new Tokenizer(KNOWS, "SolutionsTest").tokenize()).parseNonThrowing();
+                parsed.throwException();
+                for (Node root : parsed.roots()) {
+                    if (root instanceof Query q) {
+                        query = q.predicate();
+                    } else if (root instanceof Evaluatable eval) {
+                        eval.evaluate(model, parsed);
+                    }
+                }
+            } catch (ParseException e) {
+                fail(e);
+            }
+            long[] limited = ruleApplications(model, query, 1);
+            long[] all = ruleApplications(model, query, -1);
+            assertEquals(2, limited[1], "the limit plus one");
+            assertTrue(limited[0] < all[0], "rule applications " + limited[0] + " of " + all[0]);
+        });
+    }
+
+    // the rule applications and the number of facts of inferring a query in a fresh child of the model
+    private static long[] ruleApplications(KnowledgeBase model, Predicate query, int limit) {
+        KnowledgeBase knowledgeBase = new KnowledgeBase(model);
+        knowledgeBase.setBudget(new Budget(Long.MAX_VALUE, 0, 0));
+        InferResult result = KnowledgeBase.CURRENT.get(knowledgeBase, () -> query.infer(limit));
+        assertFalse(result.hasStackOverflow());
+        return new long[]{knowledgeBase.governor().ruleApplications(), result.facts().size()};
+    }
+
+    private void solutionsAsInferred(String resource) {
+        run(() -> {
+            try {
+                for (Node root : Parser.parse(SolutionsTest.class, resource)) {
+                    if (root instanceof Query query && query.inferResult() != null) {
+                        Predicate predicate = query.predicate();
+                        Solutions solutions = predicate.solutions();
+                        while (solutions.hasNext()) {
+                            solutions.next();
+                        }
+                        assertEquals(predicate.infer(), solutions.result(), resource + ": " + predicate);
+                    }
+                }
+            } catch (ParseException e) {
+                fail(e);
+            }
+        });
+    }
+
+}
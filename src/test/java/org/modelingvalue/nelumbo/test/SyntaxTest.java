@@ -37,6 +37,9 @@ public class SyntaxTest extends NelumboTestBase {
         setProp("PARALLEL_COLLECTIONS", "false");
         setProp("REVERSE_NELUMBO", "false");
         setProp("RANDOM_NELUMBO", "true");
+        setProp("PARALLEL_NELUMBO", "false");
+        setProp("PLAN_NELUMBO", "false");
+        setProp("INTERN_NELUMBO", "false");
         setProp("TRACE_NELUMBO", "false");
         setProp("VERBOSE_TESTS", "false");
     }
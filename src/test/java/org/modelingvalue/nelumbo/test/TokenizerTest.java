@@ -17,6 +17,7 @@
 package org.modelingvalue.nelumbo.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.stream.Collectors;
@@ -34,6 +35,9 @@ public class TokenizerTest extends NelumboTestBase {
         setProp("PARALLEL_COLLECTIONS", "false");
         setProp("REVERSE_NELUMBO", "false");
         setProp("RANDOM_NELUMBO", "true");
+        setProp("PARALLEL_NELUMBO", "false");
+        setProp("PLAN_NELUMBO", "false");
+        setProp("INTERN_NELUMBO", "false");
         setProp("TRACE_NELUMBO", "false");
         setProp("VERBOSE_TESTS", "false");
     }
@@ -241,6 +245,42 @@ public class TokenizerTest extends NelumboTestBase {
         assertEquals("+-*/", all.get(1).text(), "mixed operators should be single token");
     }
 
+    @Test
+    public void retokenizeMatchesTokenize() {
+        String example = """
+                Integer ::= fib(<Integer>)
+                    x = "open // not a comment
+                fib(n)=f <=> f=n if n>=0 & n<=1
+                """;
+        TokenizerResult result = new Tokenizer(example, "test").tokenize();
+        Token integer = result.firstAll().nextAll();
+        Token eol = result.lastAll().previousAll();
+        result = assertRetokenized(result, 12, 13, "g"); // a replacement that moves nothing
+        assertSame(integer, result.firstAll().nextAll());
+        assertSame(eol, result.lastAll().previousAll());
+        result = assertRetokenized(result, 12, 12, "abc + "); // an insertion
+        assertSame(integer, result.firstAll().nextAll());
+        result = assertRetokenized(result, 30, 33, ""); // a deletion over a line break
+        int quote = result.input().indexOf("comment") + 7;
+        result = assertRetokenized(result, quote, quote, "\""); // closes the quote opened earlier
+        int length = result.input().length();
+        assertRetokenized(result, length, length, "fib(5)=f ?\n"); // an append
+    }
+
+    private static TokenizerResult assertRetokenized(TokenizerResult previous, int start, int end, String text) {
+        TokenizerResult result = Tokenizer.retokenize(previous, start, end, text);
+        String input = previous.input().substring(0, start) + text + previous.input().substring(end);
+        assertEquals(input, result.input());
+        assertEquals(describe(new Tokenizer(input, "test").tokenize()), describe(result));
+        return result;
+    }
+
+    private static String describe(TokenizerResult result) {
+        String all = result.listAll().map(t -> t.type() + ":" + t.line() + ":" + t.position() + ":" + t.index() + ":"
+                + t.text()).collect(Collectors.joining("|"));
+        return all + "||" + result.list().map(Token::index).map(String::valueOf).collect(Collectors.joining(","));
+    }
+
     private static List<Token> tokenizeAll(String input) {
         return new Tokenizer(input, "test").tokenize().listAll();
     }
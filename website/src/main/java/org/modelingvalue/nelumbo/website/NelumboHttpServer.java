@@ -106,7 +106,8 @@ public final class NelumboHttpServer {
     }
 
     private void handleEval(Context ctx, boolean pathTrace) {
-        EvalService.Response response = service.eval(ctx.body(), ctx.contentType(), pathTrace);
+        boolean profile = "true".equals(ctx.queryParam("profile"));
+        EvalService.Response response = service.eval(ctx.body(), ctx.contentType(), pathTrace, profile);
         ctx.status(response.status()).json(response.body());
     }
 